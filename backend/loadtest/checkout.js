@@ -0,0 +1,52 @@
+// k6 load test: concurrent cash checkouts against one store.
+//
+//   k6 run -e BASE_URL=http://localhost:5000 -e EMAIL=... -e PASSWORD=... \
+//          -e PRODUCT_IDS=1,2,3 -e VUS=500 -e DURATION=2m loadtest/checkout.js
+//
+// Run it once against the default profile and once with SPRING_PROFILES_ACTIVE=virtual,
+// on the same hardware and database; see docs/VIRTUAL-THREADS.md.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:5000';
+const PRODUCT_IDS = (__ENV.PRODUCT_IDS || '1').split(',').map(Number);
+const checkoutLatency = new Trend('checkout_latency', true);
+
+export const options = {
+  scenarios: {
+    checkouts: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 500),
+      duration: __ENV.DURATION || '2m',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/auth/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'logged in': (r) => r.status === 200 });
+  return { jwt: res.json('jwt') };
+}
+
+export default function (data) {
+  const productId = PRODUCT_IDS[Math.floor(Math.random() * PRODUCT_IDS.length)];
+  const body = {
+    paymentType: 'CASH',
+    items: [{ productId, quantity: 1 }],
+  };
+  const res = http.post(`${BASE_URL}/api/orders`, JSON.stringify(body), {
+    headers: {
+      'Content-Type': 'application/json',
+      Authorization: `Bearer ${data.jwt}`,
+      'Idempotency-Key': `${__VU}-${__ITER}-${Date.now()}`,
+    },
+  });
+  checkoutLatency.add(res.timings.duration);
+  check(res, { 'order created': (r) => r.status === 200 });
+}
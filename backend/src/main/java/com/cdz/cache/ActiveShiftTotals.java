@@ -0,0 +1,311 @@
+package com.cdz.cache;
+
+import com.cdz.domain.PaymentType;
+import com.cdz.event.ShiftActivityEvent;
+import com.cdz.mapper.OrderMapper;
+import com.cdz.mapper.RefundMapper;
+import com.cdz.mapper.UserMapper;
+import com.cdz.model.Order;
+import com.cdz.model.PaymentSummary;
+import com.cdz.model.Refund;
+import com.cdz.model.ShiftReport;
+import com.cdz.payload.dto.OrderDTO;
+import com.cdz.payload.dto.OrderItemDTO;
+import com.cdz.payload.dto.ProductDTO;
+import com.cdz.payload.dto.RefundDTO;
+import com.cdz.payload.dto.ShiftReportDTO;
+import com.cdz.payload.dto.UserDto;
+import com.cdz.repository.OrderRepository;
+import com.cdz.repository.RefundRepository;
+import com.cdz.repository.ShiftReportRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Running totals of each cashier's active shift: sales, refunds, order count,
+ * per-payment-type buckets, the top selling products and the latest orders.
+ * Committed orders and refunds are added from {@link ShiftActivityEvent}, so
+ * reading the shift progress costs no query.
+ * <p>
+ * A shift is loaded from its orders and refunds on the first read after startup
+ * (or after a delete); events are applied under the same per-cashier entry lock
+ * and are de-duplicated by id, so a sale committed while loading is counted once.
+ * Start and end of a shift drop the cashier's entry.
+ * <p>
+ * Events only reach the instance that handled the sale. Each entry is therefore
+ * reloaded {@code shifts.progress.max-age} after it was loaded, however many local
+ * events updated it, so a shift served by several instances shows their sales
+ * within that time.
+ */
+@Component
+public class ActiveShiftTotals {
+
+    private static final int TOP_PRODUCTS = 5;
+    private static final int RECENT_ORDERS = 5;
+
+    private final ShiftReportRepository shiftReportRepository;
+    private final OrderRepository orderRepository;
+    private final RefundRepository refundRepository;
+    private final Cache<Long, ShiftTotals> shifts;
+
+    public ActiveShiftTotals(ShiftReportRepository shiftReportRepository, OrderRepository orderRepository,
+            RefundRepository refundRepository,
+            @Value("${shifts.progress.max-entries:10000}") long maxEntries,
+            @Value("${shifts.progress.max-age:1m}") Duration maxAge) {
+        this.shiftReportRepository = shiftReportRepository;
+        this.orderRepository = orderRepository;
+        this.refundRepository = refundRepository;
+        this.shifts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.creating((Long cashierId, ShiftTotals totals) -> maxAge))
+                .build();
+    }
+
+    /** Progress of the cashier's active shift, or empty when they have none. Loading needs a transaction. */
+    public Optional<ShiftReportDTO> progress(Long cashierId) {
+        ShiftTotals totals = shifts.get(cashierId, this::load);
+        return totals == null ? Optional.empty() : Optional.of(totals.toReport());
+    }
+
+    /** Drops the cashier's totals now and again after the current transaction commits. */
+    public void evict(Long cashierId) {
+        shifts.invalidate(cashierId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    shifts.invalidate(cashierId);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShiftActivity(ShiftActivityEvent event) {
+        if (event.cashierId() == null) {
+            return;
+        }
+        if (event.order() == null && event.refund() == null) {
+            shifts.invalidate(event.cashierId());
+            return;
+        }
+        shifts.asMap().computeIfPresent(event.cashierId(), (cashierId, totals) -> {
+            if (event.order() != null) {
+                totals.addOrder(event.order());
+            } else {
+                totals.addRefund(event.refund());
+            }
+            return totals;
+        });
+    }
+
+    private ShiftTotals load(Long cashierId) {
+        ShiftReport shift = shiftReportRepository
+                .findTopByCashierIdAndShiftEndIsNullOrderByShiftStartDesc(cashierId)
+                .orElse(null);
+        if (shift == null) {
+            return null;
+        }
+        ShiftTotals totals = new ShiftTotals(shift.getId(), shift.getShiftStart(),
+                UserMapper.toDTO(shift.getCashier()), cashierId,
+                shift.getStore() != null ? shift.getStore().getId() : null);
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : orderRepository.findByCashierIdAndCreatedAtBetween(cashierId, shift.getShiftStart(), now)) {
+            totals.addOrder(OrderMapper.toDTO(order));
+        }
+        for (Refund refund : refundRepository.findByCashierIdAndCreatedAtBetween(cashierId, shift.getShiftStart(), now)) {
+            totals.addRefund(RefundMapper.toDTO(refund));
+        }
+        return totals;
+    }
+
+    private static final class ShiftTotals {
+        private final Long shiftId;
+        private final LocalDateTime shiftStart;
+        private final UserDto cashier;
+        private final Long cashierId;
+        private final Long storeId;
+
+        private final Set<Long> orderIds = new HashSet<>();
+        private final Set<Long> refundIds = new HashSet<>();
+        private double totalSales;
+        private double totalRefunds;
+        private final Map<PaymentType, double[]> amountByPayment = new EnumMap<>(PaymentType.class);
+        private final Map<PaymentType, int[]> countByPayment = new EnumMap<>(PaymentType.class);
+
+        // Units only grow during a shift, so a min-heap of the k best is exact
+        private final Map<Long, Long> unitsByProduct = new HashMap<>();
+        private final Map<Long, RankedProduct> topById = new HashMap<>();
+        private final PriorityQueue<RankedProduct> top =
+                new PriorityQueue<>(Comparator.comparingLong(RankedProduct::units));
+
+        private final ArrayDeque<OrderDTO> recentOrders = new ArrayDeque<>();
+        private final List<RefundDTO> refunds = new ArrayList<>();
+
+        ShiftTotals(Long shiftId, LocalDateTime shiftStart, UserDto cashier, Long cashierId, Long storeId) {
+            this.shiftId = shiftId;
+            this.shiftStart = shiftStart;
+            this.cashier = cashier;
+            this.cashierId = cashierId;
+            this.storeId = storeId;
+        }
+
+        synchronized void addOrder(OrderDTO order) {
+            if (order.getId() == null || beforeShift(order.getCreatedAt()) || !orderIds.add(order.getId())) {
+                return;
+            }
+            double amount = order.getTotalAmount() != null ? order.getTotalAmount() : 0.0;
+            PaymentType type = order.getPaymentType() != null ? order.getPaymentType() : PaymentType.CASH;
+            totalSales += amount;
+            amountByPayment.computeIfAbsent(type, t -> new double[1])[0] += amount;
+            countByPayment.computeIfAbsent(type, t -> new int[1])[0]++;
+
+            if (order.getItems() != null) {
+                for (OrderItemDTO item : order.getItems()) {
+                    if (item.getProductId() != null && item.getQuantity() != null) {
+                        countUnits(item.getProductId(), item.getQuantity(), item.getProduct());
+                    }
+                }
+            }
+
+            recentOrders.addLast(summary(order));
+            if (recentOrders.size() > RECENT_ORDERS) {
+                // Events may arrive slightly out of order; drop the oldest, not the first added
+                recentOrders.remove(recentOrders.stream()
+                        .min(Comparator.comparing(OrderDTO::getCreatedAt,
+                                Comparator.nullsFirst(Comparator.naturalOrder())))
+                        .orElseThrow());
+            }
+        }
+
+        synchronized void addRefund(RefundDTO refund) {
+            if (refund.getId() == null || beforeShift(refund.getCreatedAt()) || !refundIds.add(refund.getId())) {
+                return;
+            }
+            totalRefunds += refund.getAmount() != null ? refund.getAmount() : 0.0;
+            refunds.add(summary(refund));
+        }
+
+        synchronized ShiftReportDTO toReport() {
+            List<PaymentSummary> summaries = new ArrayList<>();
+            amountByPayment.forEach((type, amount) -> {
+                PaymentSummary ps = new PaymentSummary();
+                ps.setType(type);
+                ps.setTotalAmount(amount[0]);
+                ps.setTransactionCount(countByPayment.get(type)[0]);
+                ps.setPercentage(totalSales > 0 ? (amount[0] / totalSales) * 100 : 0.0);
+                summaries.add(ps);
+            });
+
+            List<ProductDTO> topProducts = top.stream()
+                    .sorted(Comparator.comparingLong(RankedProduct::units).reversed())
+                    .map(RankedProduct::product)
+                    .toList();
+
+            List<OrderDTO> recent = recentOrders.stream()
+                    .sorted(Comparator.comparing(OrderDTO::getCreatedAt,
+                            Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())).reversed())
+                    .toList();
+
+            return ShiftReportDTO.builder()
+                    .id(shiftId)
+                    .shiftStart(shiftStart)
+                    .totalSales(totalSales)
+                    .totalRefunds(totalRefunds)
+                    .netSales(totalSales - totalRefunds)
+                    .totalOrders(orderIds.size())
+                    .cashier(cashier)
+                    .cashierId(cashierId)
+                    .storeId(storeId)
+                    .paymentSummaries(summaries)
+                    .topSellingProducts(topProducts.isEmpty() ? null : topProducts)
+                    .recentOrders(recent.isEmpty() ? null : recent)
+                    .refunds(refunds.isEmpty() ? null : List.copyOf(refunds))
+                    .build();
+        }
+
+        private void countUnits(Long productId, int quantity, ProductDTO product) {
+            long units = unitsByProduct.merge(productId, (long) quantity, Long::sum);
+            RankedProduct current = topById.remove(productId);
+            if (current != null) {
+                top.remove(current);
+                product = product != null ? product : current.product();
+            } else if (product == null) {
+                return;
+            } else if (top.size() >= TOP_PRODUCTS) {
+                if (units <= top.peek().units()) {
+                    return;
+                }
+                topById.remove(top.poll().productId());
+            }
+            RankedProduct ranked = new RankedProduct(productId, units, product);
+            top.add(ranked);
+            topById.put(productId, ranked);
+        }
+
+        private boolean beforeShift(LocalDateTime at) {
+            return at != null && at.isBefore(shiftStart);
+        }
+
+        /** The order without its customer entity, which must not outlive the session that loaded it. */
+        private static OrderDTO summary(OrderDTO order) {
+            return OrderDTO.builder()
+                    .id(order.getId())
+                    .totalAmount(order.getTotalAmount())
+                    .subtotal(order.getSubtotal())
+                    .totalDiscount(order.getTotalDiscount())
+                    .createdAt(order.getCreatedAt())
+                    .updatedAt(order.getUpdatedAt())
+                    .storeId(order.getStoreId())
+                    .customerId(order.getCustomerId())
+                    .customerName(order.getCustomerName())
+                    .customerPhone(order.getCustomerPhone())
+                    .cashier(order.getCashier())
+                    .paymentType(order.getPaymentType())
+                    .status(order.getStatus())
+                    .items(order.getItems())
+                    .build();
+        }
+
+        /** The refund without its order, which is already counted in the shift. */
+        private static RefundDTO summary(RefundDTO refund) {
+            return RefundDTO.builder()
+                    .id(refund.getId())
+                    .orderId(refund.getOrderId())
+                    .reason(refund.getReason())
+                    .amount(refund.getAmount())
+                    .shiftReportId(refund.getShiftReportId())
+                    .cashier(refund.getCashier())
+                    .cashierName(refund.getCashierName())
+                    .storeId(refund.getStoreId())
+                    .paymentType(refund.getPaymentType())
+                    .createdAt(refund.getCreatedAt())
+                    .updatedAt(refund.getUpdatedAt())
+                    .build();
+        }
+    }
+
+    private record RankedProduct(Long productId, long units, ProductDTO product) {
+    }
+}
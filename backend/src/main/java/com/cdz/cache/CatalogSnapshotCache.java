@@ -0,0 +1,259 @@
+package com.cdz.cache;
+
+import com.cdz.event.ProductChangedEvent;
+import com.cdz.mapper.ProductMapper;
+import com.cdz.model.Product;
+import com.cdz.payload.dto.ProductDTO;
+import com.cdz.payload.response.CatalogDelta;
+import com.cdz.repository.CatalogVersionRepository;
+import com.cdz.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable per-store catalog, already serialized to the JSON array the product
+ * listing returns, so reopening the POS screen is a byte copy (or a 304) rather
+ * than a query plus mapping. Each product is serialized once; a change re-reads and
+ * re-serializes only that product and re-assembles the array.
+ * <p>
+ * Versions are the store's persisted {@code catalog_version}, bumped by every product
+ * or category write, so a version means the same catalog on every instance and after
+ * restarts; the ETag is a hash of the content. Changes made through this instance are
+ * applied as their events arrive. A change whose version does not directly follow the
+ * snapshot's (made through another instance, or arriving out of order) drops the
+ * snapshot instead, and a snapshot older than {@code catalog.snapshot.recheck} is
+ * compared with the stored version and rebuilt if it fell behind.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshotCache {
+
+    private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final LoadingCache<Long, StoreCatalog> catalogs;
+    private final int maxChanges;
+
+    public CatalogSnapshotCache(ProductRepository productRepository, CatalogVersionRepository catalogVersionRepository,
+            ObjectMapper objectMapper,
+            @Value("${catalog.snapshot.max-stores:500}") long maxStores,
+            @Value("${catalog.snapshot.max-changes:500}") int maxChanges,
+            @Value("${catalog.snapshot.recheck:5s}") Duration recheck) {
+        this.productRepository = productRepository;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.objectMapper = objectMapper;
+        this.maxChanges = maxChanges;
+        this.catalogs = Caffeine.newBuilder()
+                .maximumSize(maxStores)
+                .refreshAfterWrite(recheck)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public StoreCatalog load(Long storeId) {
+                        return build(storeId);
+                    }
+
+                    @Override
+                    public StoreCatalog reload(Long storeId, StoreCatalog current) {
+                        // Kept as is unless another instance changed the catalog meanwhile
+                        return currentVersion(storeId) == current.version ? current : build(storeId);
+                    }
+                });
+    }
+
+    /** Serialized catalog of one store with its version and strong ETag. */
+    public record Snapshot(long version, byte[] json, String etag) {
+    }
+
+    public Snapshot snapshot(Long storeId) {
+        StoreCatalog catalog = catalogs.get(storeId);
+        return new Snapshot(catalog.version, catalog.json, catalog.etag);
+    }
+
+    public CatalogDelta changesSince(Long storeId, long since) {
+        StoreCatalog catalog = catalogs.get(storeId);
+
+        // Only versions covered by this snapshot's change log can be answered with a delta
+        if (since < catalog.oldestDeltaVersion || since > catalog.version) {
+            return CatalogDelta.builder()
+                    .version(catalog.version)
+                    .full(true)
+                    .products(List.copyOf(catalog.products.values()))
+                    .deletedIds(List.of())
+                    .build();
+        }
+
+        Set<Long> changedIds = new LinkedHashSet<>();
+        for (Change change : catalog.changes) {
+            if (change.version > since) {
+                changedIds.add(change.productId);
+            }
+        }
+        List<ProductDTO> upserts = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Long id : changedIds) {
+            ProductDTO product = catalog.products.get(id);
+            if (product != null) {
+                upserts.add(product);
+            } else {
+                deleted.add(id);
+            }
+        }
+        return CatalogDelta.builder()
+                .version(catalog.version)
+                .full(false)
+                .products(upserts)
+                .deletedIds(deleted)
+                .build();
+    }
+
+    /**
+     * Patch the snapshot of a store that is currently held; stores nobody has loaded
+     * are left to be built on first request. Falls back to the caller's thread when
+     * there is no transaction (the repository call has already committed).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.storeId() == null) {
+            return;
+        }
+        if (event.productId() == null) {
+            catalogs.invalidate(event.storeId());
+            return;
+        }
+        catalogs.asMap().computeIfPresent(event.storeId(), (storeId, current) -> {
+            if (event.version() <= current.version) {
+                return current; // already read by the build
+            }
+            if (event.version() != current.version + 1) {
+                return null; // missed a change; rebuilt on next request
+            }
+            Optional<Product> product = productRepository.findById(event.productId())
+                    .filter(p -> p.getStore() != null && storeId.equals(p.getStore().getId()));
+            return current.apply(event.productId(), product.map(ProductMapper::toDTO).orElse(null), event.version());
+        });
+    }
+
+    private long currentVersion(Long storeId) {
+        return catalogVersionRepository.findVersion(storeId).orElse(0L);
+    }
+
+    private StoreCatalog build(Long storeId) {
+        // Read before the products: a change committed in between is then in the products
+        // and re-applied harmlessly, never counted by the version but missing from the products
+        long version = currentVersion(storeId);
+        TreeMap<Long, ProductDTO> products = new TreeMap<>();
+        TreeMap<Long, byte[]> productJson = new TreeMap<>();
+        for (Product product : productRepository.findByStoreId(storeId)) {
+            ProductDTO dto = ProductMapper.toDTO(product);
+            products.put(dto.getId(), dto);
+            productJson.put(dto.getId(), serialize(dto));
+        }
+        log.debug("Built catalog snapshot for store {} with {} products at version {}", storeId, products.size(), version);
+        return new StoreCatalog(version, version, products, productJson, List.of());
+    }
+
+    private byte[] serialize(ProductDTO dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + dto.getId(), e);
+        }
+    }
+
+    private record Change(long version, Long productId) {
+    }
+
+    private final class StoreCatalog {
+        private final long version;
+        private final long oldestDeltaVersion;
+        private final Map<Long, ProductDTO> products;
+        private final Map<Long, byte[]> productJson;
+        private final List<Change> changes;
+        private final byte[] json;
+        private final String etag;
+
+        private StoreCatalog(long version, long oldestDeltaVersion, TreeMap<Long, ProductDTO> products,
+                TreeMap<Long, byte[]> productJson, List<Change> changes) {
+            this.version = version;
+            this.oldestDeltaVersion = oldestDeltaVersion;
+            this.products = Collections.unmodifiableMap(products);
+            this.productJson = Collections.unmodifiableMap(productJson);
+            this.changes = changes;
+            this.json = assemble(productJson);
+            this.etag = "\"" + sha256(json) + "\"";
+        }
+
+        /** Copy with one product replaced (or removed when {@code dto} is null). */
+        private StoreCatalog apply(Long productId, ProductDTO dto, long nextVersion) {
+            TreeMap<Long, ProductDTO> nextProducts = new TreeMap<>(products);
+            TreeMap<Long, byte[]> nextJson = new TreeMap<>(productJson);
+            if (dto != null) {
+                nextProducts.put(productId, dto);
+                nextJson.put(productId, serialize(dto));
+            } else {
+                nextProducts.remove(productId);
+                nextJson.remove(productId);
+            }
+
+            List<Change> nextChanges = new ArrayList<>(changes.size() + 1);
+            nextChanges.addAll(changes);
+            nextChanges.add(new Change(nextVersion, productId));
+            long oldest = oldestDeltaVersion;
+            while (nextChanges.size() > maxChanges) {
+                // Deltas from before the dropped change can no longer be answered
+                oldest = nextChanges.remove(0).version;
+            }
+            return new StoreCatalog(nextVersion, oldest, nextProducts, nextJson, List.copyOf(nextChanges));
+        }
+    }
+
+    private static byte[] assemble(Map<Long, byte[]> productJson) {
+        int length = 2 + Math.max(0, productJson.size() - 1);
+        for (byte[] bytes : productJson.values()) {
+            length += bytes.length;
+        }
+        byte[] out = new byte[length];
+        int pos = 0;
+        out[pos++] = '[';
+        boolean first = true;
+        for (byte[] bytes : productJson.values()) {
+            if (!first) {
+                out[pos++] = ',';
+            }
+            System.arraycopy(bytes, 0, out, pos, bytes.length);
+            pos += bytes.length;
+            first = false;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cdz.cache;
+
+import com.cdz.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Customer id by store and normalized phone, for linking customers at checkout.
+ * Only hits are cached (a miss is usually followed by creating the customer);
+ * customer writes evict their old and new number.
+ */
+@Component
+public class CustomerPhoneCache {
+
+    private final CustomerRepository customerRepository;
+    private final Cache<String, Long> customerIds;
+
+    public CustomerPhoneCache(CustomerRepository customerRepository,
+            @Value("${customers.phone-cache.size:50000}") long size,
+            @Value("${customers.phone-cache.ttl:30m}") Duration ttl) {
+        this.customerRepository = customerRepository;
+        this.customerIds = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<Long> find(Long storeId, String normalizedPhone) {
+        String key = key(storeId, normalizedPhone);
+        Long cached = customerIds.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> id = customerRepository.findIdByStoreIdAndPhoneNormalized(storeId, normalizedPhone);
+        id.ifPresent(found -> customerIds.put(key, found));
+        return id;
+    }
+
+    public void put(Long storeId, String normalizedPhone, Long customerId) {
+        customerIds.put(key(storeId, normalizedPhone), customerId);
+    }
+
+    public void evict(Long storeId, String normalizedPhone) {
+        if (storeId == null || normalizedPhone == null) {
+            return;
+        }
+        String key = key(storeId, normalizedPhone);
+        customerIds.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    customerIds.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private static String key(Long storeId, String normalizedPhone) {
+        return storeId + ":" + normalizedPhone;
+    }
+}
@@ -0,0 +1,178 @@
+package com.cdz.cache;
+
+import com.cdz.event.CustomerChangedEvent;
+import com.cdz.mapper.CustomerMapper;
+import com.cdz.payload.dto.CustomerDTO;
+import com.cdz.repository.CustomerRepository;
+import com.cdz.service.impl.PhoneNumberNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Per-store customer search: a {@link TrigramIndex} over name and email, plus a
+ * sorted map of normalized phone numbers for prefix lookups. Memory is bounded by
+ * the total number of customers held across stores; the least recently used
+ * stores are dropped and rebuilt on their next search. Customers are held as
+ * immutable {@link CustomerDTO}s, never as entities.
+ */
+@Component
+@Slf4j
+public class CustomerSearchIndex {
+
+    private static final Pattern PHONE_LIKE = Pattern.compile("^\\+?[\\d\\s().-]*\\d[\\d\\s().-]*$");
+
+    private static final int NAME = 0;
+    private static final int EMAIL = 1;
+
+    private static final TrigramIndex.Ranker RANKER = (fields, query) -> {
+        if (fields[NAME].startsWith(query)) {
+            return 0;
+        }
+        if (fields[EMAIL].startsWith(query)) {
+            return 1;
+        }
+        return TrigramIndex.matchesWordPrefix(fields[NAME], query) ? 2 : 3;
+    };
+
+    private static final Comparator<CustomerDTO> BY_NAME = Comparator
+            .comparing(CustomerDTO::getFullName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(CustomerDTO::getId);
+
+    private final CustomerRepository customerRepository;
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+    private final Cache<Long, StoreCustomers> indexes;
+    private final long maxEntries;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository, PhoneNumberNormalizer phoneNumberNormalizer,
+            @Value("${customers.search.max-entries:1000000}") long maxEntries) {
+        this.customerRepository = customerRepository;
+        this.phoneNumberNormalizer = phoneNumberNormalizer;
+        this.maxEntries = maxEntries;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((Long storeId, StoreCustomers index) -> index.names.size() + 1)
+                .build();
+    }
+
+    /**
+     * Customers of the store matching {@code query}, best first. A phone-like query
+     * matches phone number prefixes (exact number first); anything else matches name
+     * or email (name prefix, email prefix, name word prefix, then other substrings).
+     * An empty query lists every customer by name.
+     */
+    public List<CustomerDTO> search(Long storeId, String query) {
+        StoreCustomers index = indexes.get(storeId, this::build);
+        String trimmed = query == null ? "" : query.trim();
+        if (!trimmed.isEmpty() && PHONE_LIKE.matcher(trimmed).matches()) {
+            return index.byPhonePrefix(phoneNumberNormalizer.prefixes(trimmed), phoneNumberNormalizer.normalize(trimmed));
+        }
+        return index.names.search(TrigramIndex.normalizeQuery(trimmed), RANKER, BY_NAME);
+    }
+
+    /**
+     * Load stores one at a time until the weight limit is reached. Runs while
+     * requests are already served, so a store that a search loaded meanwhile is kept.
+     */
+    public void warmAll() {
+        long loaded = 0;
+        int stores = 0;
+        for (Long storeId : customerRepository.findStoreIds()) {
+            if (indexes.asMap().containsKey(storeId)) {
+                continue;
+            }
+            StoreCustomers index = build(storeId);
+            loaded += index.names.size() + 1;
+            if (loaded > maxEntries) {
+                break;
+            }
+            indexes.asMap().putIfAbsent(storeId, index);
+            stores++;
+        }
+        log.info("Customer search index warmed for {} stores", stores);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.storeId() == null || event.customerId() == null) {
+            return;
+        }
+        // Returning the index from compute re-weighs it
+        indexes.asMap().computeIfPresent(event.storeId(), (storeId, index) -> {
+            CustomerDTO customer = customerRepository.findById(event.customerId())
+                    .filter(c -> c.getStore() != null && storeId.equals(c.getStore().getId()))
+                    .map(CustomerMapper::toDTO)
+                    .orElse(null);
+            index.upsert(event.customerId(), customer);
+            return index;
+        });
+    }
+
+    private StoreCustomers build(Long storeId) {
+        return new StoreCustomers(customerRepository.findByStoreId(storeId).stream()
+                .map(CustomerMapper::toDTO)
+                .toList());
+    }
+
+    private static final class StoreCustomers {
+        private final TrigramIndex<CustomerDTO> names;
+        private final NavigableMap<String, CustomerDTO> byPhone = new ConcurrentSkipListMap<>();
+        private final Map<Long, String> phoneById = new HashMap<>();
+
+        StoreCustomers(List<CustomerDTO> customers) {
+            names = new TrigramIndex<>(customers.size(), CustomerDTO::getId,
+                    List.of(CustomerDTO::getFullName, CustomerDTO::getEmail));
+            for (CustomerDTO customer : customers) {
+                names.add(customer);
+                putPhone(customer);
+            }
+        }
+
+        /** Writers are serialized by the cache entry of their store. */
+        void upsert(Long customerId, CustomerDTO customer) {
+            names.upsert(customerId, customer);
+            String oldPhone = phoneById.remove(customerId);
+            if (oldPhone != null) {
+                byPhone.remove(oldPhone);
+            }
+            if (customer != null) {
+                putPhone(customer);
+            }
+        }
+
+        private void putPhone(CustomerDTO customer) {
+            if (customer.getPhoneNormalized() != null) {
+                byPhone.put(customer.getPhoneNormalized(), customer);
+                phoneById.put(customer.getId(), customer.getPhoneNormalized());
+            }
+        }
+
+        List<CustomerDTO> byPhonePrefix(List<String> prefixes, String exact) {
+            Map<Long, CustomerDTO> result = new LinkedHashMap<>();
+            CustomerDTO exactMatch = exact != null ? byPhone.get(exact) : null;
+            if (exactMatch != null) {
+                result.put(exactMatch.getId(), exactMatch);
+            }
+            for (String prefix : prefixes) {
+                for (CustomerDTO customer : byPhone.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                    result.putIfAbsent(customer.getId(), customer);
+                }
+            }
+            return new ArrayList<>(result.values());
+        }
+    }
+}
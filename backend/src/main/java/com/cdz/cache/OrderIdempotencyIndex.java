@@ -0,0 +1,55 @@
+package com.cdz.cache;
+
+import com.cdz.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Maps (store, Idempotency-Key) to the id of the order it created.
+ * Recent keys are answered from memory; older ones fall back to the
+ * unique (store_id, idempotency_key) index on the orders table.
+ */
+@Component
+public class OrderIdempotencyIndex {
+
+    private final OrderRepository orderRepository;
+    private final Cache<String, Long> recentKeys;
+
+    public OrderIdempotencyIndex(OrderRepository orderRepository,
+            @Value("${orders.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${orders.idempotency.cache-ttl:24h}") Duration cacheTtl) {
+        this.orderRepository = orderRepository;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public Optional<Long> findOrderId(Long storeId, String idempotencyKey) {
+        String key = key(storeId, idempotencyKey);
+        Long orderId = recentKeys.getIfPresent(key);
+        if (orderId != null) {
+            return Optional.of(orderId);
+        }
+        Optional<Long> persisted = orderRepository.findIdByStoreIdAndIdempotencyKey(storeId, idempotencyKey);
+        persisted.ifPresent(id -> recentKeys.put(key, id));
+        return persisted;
+    }
+
+    public void register(Long storeId, String idempotencyKey, Long orderId) {
+        recentKeys.put(key(storeId, idempotencyKey), orderId);
+    }
+
+    public void evict(Long storeId, String idempotencyKey) {
+        recentKeys.invalidate(key(storeId, idempotencyKey));
+    }
+
+    private static String key(Long storeId, String idempotencyKey) {
+        return storeId + ":" + idempotencyKey;
+    }
+}
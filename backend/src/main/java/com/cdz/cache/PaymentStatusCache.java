@@ -0,0 +1,45 @@
+package com.cdz.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Last known status per Stripe PaymentIntent, fed by webhooks and by checkout's own
+ * lookups. Only final statuses are kept, so a cached answer never goes stale.
+ */
+@Component
+public class PaymentStatusCache {
+
+    private static final Set<String> FINAL_STATUSES = Set.of("succeeded", "canceled");
+
+    private final Cache<String, String> statuses;
+
+    public PaymentStatusCache(@Value("${stripe.status-cache.size:50000}") long size,
+            @Value("${stripe.status-cache.ttl:6h}") Duration ttl) {
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<String> get(String paymentIntentId) {
+        return Optional.ofNullable(statuses.getIfPresent(paymentIntentId));
+    }
+
+    public void record(String paymentIntentId, String status) {
+        if (paymentIntentId == null || status == null) {
+            return;
+        }
+        if (FINAL_STATUSES.contains(status)) {
+            statuses.put(paymentIntentId, status);
+        } else {
+            statuses.invalidate(paymentIntentId);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cdz.cache;
+
+import com.cdz.configuration.TokenPrincipal;
+import com.cdz.model.User;
+import com.cdz.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Identity snapshots of authenticated users by email: id, email, role, store and
+ * token version. A short-lived, size-bounded cache answers before the users table
+ * is queried. Only the immutable {@link TokenPrincipal} is shared between requests;
+ * code that changes a user loads the entity from the repository. Anything that
+ * changes a user's email, role, store or password must call {@link #invalidate(String)}.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, TokenPrincipal> principals;
+
+    public PrincipalCache(UserRepository userRepository,
+            @Value("${users.principal-cache.size:10000}") long size,
+            @Value("${users.principal-cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /** @return a snapshot of the user with this email, or null when there is none */
+    public TokenPrincipal findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return principals.get(email, this::load);
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        principals.invalidate(email);
+        // A reader may reload the old row before our transaction commits; drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(email);
+                }
+            });
+        }
+    }
+
+    private TokenPrincipal load(String email) {
+        User user = userRepository.findByEmail(email);
+        return user != null ? TokenPrincipal.of(user) : null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.cdz.cache;
+
+import com.cdz.event.ProductChangedEvent;
+import com.cdz.mapper.ProductMapper;
+import com.cdz.model.Product;
+import com.cdz.payload.dto.ProductDTO;
+import com.cdz.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Product search over name, brand and SKU, one {@link TrigramIndex} per store,
+ * built on first search and patched from {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int NAME = 0;
+    private static final int SKU = 2;
+
+    private static final TrigramIndex.Ranker RANKER = (fields, query) -> {
+        if (fields[SKU].equals(query)) {
+            return 0;
+        }
+        if (fields[SKU].startsWith(query)) {
+            return 1;
+        }
+        return fields[NAME].startsWith(query) ? 2 : 3;
+    };
+
+    private static final Comparator<ProductDTO> BY_NAME =
+            Comparator.comparing(ProductDTO::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, TrigramIndex<ProductDTO>> indexes;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+            @Value("${catalog.search.max-stores:500}") long maxStores) {
+        this.productRepository = productRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxStores)
+                .build();
+    }
+
+    /**
+     * Products matching {@code keyword}: exact SKU first, then SKU prefix, name prefix,
+     * other matches; ties by name.
+     *
+     * @param limit maximum results, or null for all
+     */
+    public List<ProductDTO> search(Long storeId, String keyword, Integer limit) {
+        String query = TrigramIndex.normalizeQuery(keyword);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<ProductDTO> matches = indexes.get(storeId, this::build).search(query, RANKER, BY_NAME);
+        return limit != null && limit < matches.size() ? matches.subList(0, limit) : matches;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.storeId() == null) {
+            return;
+        }
+        if (event.productId() == null) {
+            indexes.invalidate(event.storeId());
+            return;
+        }
+        indexes.asMap().computeIfPresent(event.storeId(), (storeId, index) -> {
+            ProductDTO product = productRepository.findById(event.productId())
+                    .filter(p -> p.getStore() != null && storeId.equals(p.getStore().getId()))
+                    .map(ProductMapper::toDTO)
+                    .orElse(null);
+            index.upsert(event.productId(), product);
+            return index;
+        });
+    }
+
+    private TrigramIndex<ProductDTO> build(Long storeId) {
+        List<Product> products = productRepository.findByStoreId(storeId);
+        TrigramIndex<ProductDTO> index = new TrigramIndex<>(products.size(), ProductDTO::getId,
+                List.of(ProductDTO::getName, ProductDTO::getBrand, ProductDTO::getSku));
+        for (Product product : products) {
+            index.add(ProductMapper.toDTO(product));
+        }
+        log.debug("Built search index for store {}: {} products, {} grams", storeId, products.size(), index.gramCount());
+        return index;
+    }
+}
@@ -0,0 +1,253 @@
+package com.cdz.cache;
+
+import com.cdz.event.InventoryChangedEvent;
+import com.cdz.event.ProductChangedEvent;
+import com.cdz.mapper.ProductMapper;
+import com.cdz.model.Product;
+import com.cdz.payload.dto.ProductDTO;
+import com.cdz.payload.response.SkuLookupResponse;
+import com.cdz.repository.InventoryRepository;
+import com.cdz.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Exact SKU to product + stock, per store, for barcode scans. Each store has an
+ * open-addressing table (linear probing, load factor at most 1/2) of normalized SKU,
+ * product and quantity. Reads take no lock. Stock changes overwrite the quantity
+ * slot in place. Product changes, which are rare, rebuild the store's table and
+ * swap it in.
+ * <p>
+ * All stores are loaded by {@code IndexWarmup} once the application is ready;
+ * a store created later is loaded on its first lookup. At most
+ * {@code catalog.sku-index.max-stores} stores are held, least recently used
+ * dropped first, so lookups for made-up store ids cannot grow it without bound.
+ */
+@Component
+@Slf4j
+public class SkuIndex {
+
+    private static final int NO_STOCK = Integer.MIN_VALUE;
+
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final Cache<Long, StoreSkus> stores;
+
+    public SkuIndex(ProductRepository productRepository, InventoryRepository inventoryRepository,
+            @Value("${catalog.sku-index.max-stores:500}") long maxStores) {
+        this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stores = Caffeine.newBuilder()
+                .maximumSize(maxStores)
+                .build();
+    }
+
+    public Optional<SkuLookupResponse> lookup(Long storeId, String sku) {
+        if (sku == null || sku.isBlank()) {
+            return Optional.empty();
+        }
+        StoreSkus store = stores.get(storeId, this::load);
+        return Optional.ofNullable(store.table.get(normalize(sku)));
+    }
+
+    /**
+     * Load every store in two queries. Runs while requests are already served, so a
+     * store that a lookup or change event loaded meanwhile is kept: its stock is newer.
+     */
+    public void warmAll() {
+        Map<Long, List<ProductDTO>> productsByStore = new HashMap<>();
+        for (Product product : productRepository.findAll()) {
+            if (product.getStore() != null) {
+                productsByStore.computeIfAbsent(product.getStore().getId(), k -> new ArrayList<>())
+                        .add(ProductMapper.toDTO(product));
+            }
+        }
+        Map<Long, Map<Long, Integer>> stockByStore = new HashMap<>();
+        for (InventoryRepository.StockLevel level : inventoryRepository.findAllStockLevels()) {
+            stockByStore.computeIfAbsent(level.getStoreId(), k -> new HashMap<>())
+                    .put(level.getProductId(), level.getQuantity());
+        }
+        productsByStore.forEach((storeId, products) -> stores.asMap().putIfAbsent(storeId,
+                new StoreSkus(products, stockByStore.getOrDefault(storeId, Map.of()))));
+        log.info("SKU index warmed for {} stores", productsByStore.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.storeId() == null) {
+            return;
+        }
+        if (event.productId() == null) {
+            stores.asMap().computeIfPresent(event.storeId(), (storeId, current) -> load(storeId));
+            return;
+        }
+        // Re-read under the store's entry lock so two changes cannot be applied out of order
+        stores.asMap().computeIfPresent(event.storeId(), (storeId, current) -> {
+            ProductDTO product = productRepository.findById(event.productId())
+                    .filter(p -> p.getStore() != null && storeId.equals(p.getStore().getId()))
+                    .map(ProductMapper::toDTO)
+                    .orElse(null);
+            Integer quantity = null;
+            if (product != null) {
+                List<InventoryRepository.StockLevel> levels =
+                        inventoryRepository.findStockLevels(storeId, List.of(event.productId()));
+                quantity = levels.isEmpty() ? null : levels.get(0).getQuantity();
+            }
+            current.replaceProduct(event.productId(), product, quantity);
+            return current;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.storeId() == null || event.productIds() == null || event.productIds().isEmpty()) {
+            return;
+        }
+        stores.asMap().computeIfPresent(event.storeId(), (storeId, current) -> {
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (Long productId : event.productIds()) {
+                quantities.put(productId, null);
+            }
+            for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevels(storeId, event.productIds())) {
+                quantities.put(level.getProductId(), level.getQuantity());
+            }
+            current.setQuantities(quantities);
+            return current;
+        });
+    }
+
+    private StoreSkus load(Long storeId) {
+        List<ProductDTO> products = productRepository.findByStoreId(storeId).stream()
+                .map(ProductMapper::toDTO)
+                .toList();
+        Map<Long, Integer> stock = new HashMap<>();
+        for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByStoreId(storeId)) {
+            stock.put(level.getProductId(), level.getQuantity());
+        }
+        return new StoreSkus(products, stock);
+    }
+
+    private static String normalize(String sku) {
+        return sku.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Writers are serialized by the map entry of their store; readers only touch {@link #table}. */
+    private static final class StoreSkus {
+        private volatile Table table;
+        private final Map<Long, String> skuByProductId = new HashMap<>();
+
+        StoreSkus(List<ProductDTO> products, Map<Long, Integer> stock) {
+            Table built = new Table(products.size());
+            for (ProductDTO product : products) {
+                if (product.getSku() != null) {
+                    String key = normalize(product.getSku());
+                    built.put(key, product, stock.get(product.getId()));
+                    skuByProductId.put(product.getId(), key);
+                }
+            }
+            this.table = built;
+        }
+
+        void replaceProduct(Long productId, ProductDTO product, Integer quantity) {
+            String oldKey = skuByProductId.remove(productId);
+            Table current = table;
+            int size = current.size + (product != null ? 1 : 0);
+            Table next = new Table(size);
+            for (int slot = 0; slot < current.keys.length; slot++) {
+                String key = current.keys[slot];
+                if (key != null && !key.equals(oldKey)) {
+                    next.put(key, current.products[slot], current.quantityAt(slot));
+                }
+            }
+            if (product != null && product.getSku() != null) {
+                String key = normalize(product.getSku());
+                next.put(key, product, quantity);
+                skuByProductId.put(productId, key);
+            }
+            table = next;
+        }
+
+        void setQuantities(Map<Long, Integer> quantities) {
+            Table current = table;
+            quantities.forEach((productId, quantity) -> {
+                String key = skuByProductId.get(productId);
+                int slot = key != null ? current.find(key) : -1;
+                if (slot >= 0) {
+                    current.quantities.set(slot, quantity != null ? quantity : NO_STOCK);
+                }
+            });
+        }
+    }
+
+    private static final class Table {
+        private final String[] keys;
+        private final ProductDTO[] products;
+        private final AtomicIntegerArray quantities;
+        private final int mask;
+        private int size;
+
+        Table(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(8, expected * 2 - 1)) << 1;
+            keys = new String[capacity];
+            products = new ProductDTO[capacity];
+            quantities = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+        }
+
+        /** Only used while the table is being built, before it is published. */
+        void put(String key, ProductDTO product, Integer quantity) {
+            int slot = slot(key);
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                size++;
+            }
+            keys[slot] = key;
+            products[slot] = product;
+            quantities.set(slot, quantity != null ? quantity : NO_STOCK);
+        }
+
+        int find(String key) {
+            int slot = slot(key);
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        SkuLookupResponse get(String key) {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            return new SkuLookupResponse(products[slot], quantityAt(slot));
+        }
+
+        Integer quantityAt(int slot) {
+            int quantity = quantities.get(slot);
+            return quantity == NO_STOCK ? null : quantity;
+        }
+
+        private int slot(String key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
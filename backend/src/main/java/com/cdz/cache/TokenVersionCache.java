@@ -0,0 +1,65 @@
+package com.cdz.cache;
+
+import com.cdz.model.User;
+import com.cdz.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Current token version per user id, so the JWT filter can tell whether the
+ * role/store/email in a token are still valid without reading the user on
+ * every request. Changes made on this instance apply immediately; other
+ * instances pick them up within the TTL.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+            @Value("${jwt.token-version-cache.size:10000}") long size,
+            @Value("${jwt.token-version-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /** @return the user's current token version, or null when the user no longer exists */
+    public Long current(Long userId) {
+        return versions.get(userId, userRepository::findTokenVersionById);
+    }
+
+    /**
+     * Increments the version on the entity (the caller saves it), invalidating every
+     * token issued before. Call whenever role, store or email change.
+     */
+    public void bump(User user) {
+        user.setTokenVersion((user.getTokenVersion() != null ? user.getTokenVersion() : 0L) + 1);
+        evict(user.getId());
+    }
+
+    /** Forget the cached version, e.g. after the user is deleted. */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        versions.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.cdz.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory substring index over a few text fields of one kind of document, used by
+ * the per-store product and customer search.
+ * <p>
+ * Every trigram of the lower-cased fields maps to a sorted {@code int[]} of document
+ * numbers. A query of three or more characters intersects the postings of its
+ * trigrams and checks the few survivors with {@code contains}, which gives the same
+ * matches as {@code LIKE '%kw%'}. One- and two-character queries use word-prefix
+ * postings instead (typeahead on "co" finds "Coca Cola", not "taco").
+ * <p>
+ * Replaced documents get a new number and the old one is tombstoned; the index
+ * compacts itself in memory once a quarter of it is dead. Safe for concurrent use:
+ * searches share a read lock, changes take the write lock.
+ */
+final class TrigramIndex<T> {
+
+    /** Orders matches; lower is better. {@code fields} are lower-cased, in declaration order. */
+    interface Ranker {
+        int rank(String[] fields, String query);
+    }
+
+    private final Function<T, Long> idOf;
+    private final List<Function<T, String>> fieldsOf;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> grams = new HashMap<>();
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private Object[] docs;
+    private String[][] fields;
+    private int docCount;
+
+    TrigramIndex(int capacity, Function<T, Long> idOf, List<Function<T, String>> fieldsOf) {
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+        int size = Math.max(16, capacity);
+        this.docs = new Object[size];
+        this.fields = new String[fieldsOf.size()][size];
+    }
+
+    static String normalizeQuery(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Live documents. */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int gramCount() {
+        return grams.size();
+    }
+
+    /**
+     * Matches of {@code query} (see {@link #normalizeQuery}), best rank first, ties by
+     * {@code tieBreak}. An empty query returns every document.
+     */
+    List<T> search(String query, Ranker ranker, Comparator<T> tieBreak) {
+        lock.readLock().lock();
+        try {
+            boolean wordPrefix = query.length() < 3 && query.chars().allMatch(Character::isLetterOrDigit);
+            int[] candidates = query.isEmpty() ? allDocs() : candidates(query, wordPrefix);
+            List<Hit> hits = new ArrayList<>();
+            String[] docFields = new String[fields.length];
+            for (int doc : candidates) {
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                for (int f = 0; f < fields.length; f++) {
+                    docFields[f] = fields[f][doc];
+                }
+                if (query.isEmpty() || matches(docFields, query, wordPrefix)) {
+                    hits.add(new Hit(doc, ranker.rank(docFields, query)));
+                }
+            }
+            Comparator<Hit> order = Comparator.comparingInt(Hit::rank);
+            hits.sort(order.thenComparing(h -> doc(h.doc()), tieBreak));
+            List<T> result = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                result.add(doc(hit.doc()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Replace the document with this id; a null {@code doc} removes it. */
+    void upsert(Long id, T doc) {
+        lock.writeLock().lock();
+        try {
+            Integer old = docById.remove(id);
+            if (old != null) {
+                deleted.set(old);
+            }
+            if (doc != null) {
+                add(doc);
+            }
+            if (deleted.cardinality() > 1000 && deleted.cardinality() > docCount / 4) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Only for building: before the index is shared, or under the write lock. */
+    void add(T doc) {
+        if (docCount == docs.length) {
+            int size = docCount * 2;
+            docs = Arrays.copyOf(docs, size);
+            for (int f = 0; f < fields.length; f++) {
+                fields[f] = Arrays.copyOf(fields[f], size);
+            }
+        }
+        int number = docCount++;
+        docs[number] = doc;
+        docById.put(idOf.apply(doc), number);
+        for (int f = 0; f < fields.length; f++) {
+            String value = fieldsOf.get(f).apply(doc);
+            fields[f][number] = value == null ? "" : value.toLowerCase(Locale.ROOT);
+            indexField(number, fields[f][number]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T doc(int number) {
+        return (T) docs[number];
+    }
+
+    private void indexField(int doc, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.computeIfAbsent(gram(text, i, 3), k -> new Postings()).add(doc);
+        }
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordChar = Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && !inWord) {
+                grams.computeIfAbsent(gram(text, i, 1), k -> new Postings()).add(doc);
+                if (i + 1 < text.length() && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    grams.computeIfAbsent(gram(text, i, 2), k -> new Postings()).add(doc);
+                }
+            }
+            inWord = wordChar;
+        }
+    }
+
+    private int[] candidates(String query, boolean wordPrefix) {
+        if (wordPrefix) {
+            Postings postings = grams.get(gram(query, 0, query.length()));
+            return postings == null ? new int[0] : Arrays.copyOf(postings.docs, postings.size);
+        }
+        if (query.length() < 3) {
+            // Short query with punctuation or spaces: no postings to use, check every document
+            return allDocs();
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            Postings postings = grams.get(gram(query, i, 3));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int size = result.length;
+        for (int l = 1; l < lists.size() && size > 0; l++) {
+            size = intersect(result, size, lists.get(l));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /** Keeps in {@code acc} the entries also in {@code other}; both sorted. Returns the new size. */
+    private static int intersect(int[] acc, int size, Postings other) {
+        int out = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < other.size; ) {
+            if (acc[i] == other.docs[j]) {
+                acc[out++] = acc[i++];
+                j++;
+            } else if (acc[i] < other.docs[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return out;
+    }
+
+    private int[] allDocs() {
+        int[] all = new int[docCount];
+        for (int i = 0; i < docCount; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    private static boolean matches(String[] docFields, String query, boolean wordPrefix) {
+        for (String field : docFields) {
+            if (wordPrefix ? matchesWordPrefix(field, query) : field.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean matchesWordPrefix(String text, String query) {
+        int from = 0;
+        while (true) {
+            int at = text.indexOf(query, from);
+            if (at < 0) {
+                return false;
+            }
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true;
+            }
+            from = at + 1;
+        }
+    }
+
+    private void compact() {
+        List<T> live = new ArrayList<>(docById.size());
+        for (int i = 0; i < docCount; i++) {
+            if (!deleted.get(i)) {
+                live.add(doc(i));
+            }
+        }
+        grams.clear();
+        docById.clear();
+        deleted.clear();
+        Arrays.fill(docs, null);
+        docCount = 0;
+        for (T doc : live) {
+            add(doc);
+        }
+    }
+
+    /** Trigram key, or a 1-2 char word prefix key; the length is kept in the top bits. */
+    private static long gram(CharSequence s, int from, int length) {
+        long key = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            key |= (long) s.charAt(from + i) << (16 * (2 - i));
+        }
+        return key;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            // Documents are added in increasing order, so a duplicate can only be the last entry
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private record Hit(int doc, int rank) {
+    }
+}
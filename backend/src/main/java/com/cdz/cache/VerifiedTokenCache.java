@@ -0,0 +1,80 @@
+package com.cdz.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Claims of tokens whose signature has already been checked, keyed by a SHA-256
+ * of the token so the same bearer token is not re-verified on every request.
+ * An entry never outlives the token's {@code exp}. Only signature and parsing
+ * are cached: token-version checks still run per request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Claims> claims;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.size:20000}") long size,
+            @Value("${jwt.verified-cache.ttl:10m}") Duration ttl) {
+        long maxNanos = ttl.toNanos();
+        this.claims = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims value, long currentTime) {
+                        Date exp = value.getExpiration();
+                        if (exp == null) {
+                            return maxNanos;
+                        }
+                        long untilExp = Duration.ofMillis(exp.getTime() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(untilExp, maxNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @param verify parses and verifies the token; only called on a miss and
+     *               its exceptions propagate (nothing is cached for bad tokens)
+     */
+    public Claims get(String token, Function<String, Claims> verify) {
+        Claims cached = claims.getIfPresent(hash(token));
+        if (cached != null) {
+            return cached;
+        }
+        Claims verified = verify.apply(token);
+        claims.put(hash(token), verified);
+        return verified;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
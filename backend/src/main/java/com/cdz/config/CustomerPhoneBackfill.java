@@ -0,0 +1,67 @@
+package com.cdz.config;
+
+import com.cdz.service.impl.PhoneNumberNormalizer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills customer.phone_normalized for rows written before the column existed.
+ * Where several customers of a store share a number, the oldest keeps it and the
+ * others stay null (they can still be found by name, just not linked by phone),
+ * so the unique (store_id, phone_normalized) key holds. A no-op once every
+ * customer is normalized.
+ * <p>
+ * A failure stops start-up: checkout links customers by the normalized number,
+ * so serving without it would create a second customer for every old one.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerPhoneBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+
+    @PostConstruct
+    public void backfill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT CONCAT(store_id, ':', phone_normalized) FROM customer "
+                            + "WHERE phone_normalized IS NOT NULL AND store_id IS NOT NULL", String.class));
+
+            List<Object[]> updates = new ArrayList<>();
+            int[] duplicates = { 0 };
+            jdbcTemplate.query("SELECT id, store_id, phone FROM customer "
+                    + "WHERE phone_normalized IS NULL AND phone IS NOT NULL AND phone <> '' ORDER BY id", rs -> {
+                String normalized = phoneNumberNormalizer.normalize(rs.getString("phone"));
+                if (normalized == null) {
+                    return;
+                }
+                long storeId = rs.getLong("store_id");
+                if (!rs.wasNull() && !taken.add(storeId + ":" + normalized)) {
+                    duplicates[0]++;
+                    return;
+                }
+                updates.add(new Object[] { normalized, rs.getLong("id") });
+            });
+
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE customer SET phone_normalized = ? WHERE id = ?", updates);
+                log.info("Normalized {} customer phone numbers ({} duplicates left unlinked)",
+                        updates.size(), duplicates[0]);
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.cdz.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Orders, order items, refunds and inventory draw ids in blocks of 50 from their own
+ * sequence tables instead of the shared hibernate_sequence row. On start-up each
+ * sequence is moved past the highest id already in use, so rows created under the
+ * old generator never collide with newly allocated blocks.
+ * <p>
+ * Depends on the entity manager factory so the sequence tables exist. A failure
+ * stops start-up: serving checkouts with a sequence behind the table would fail
+ * them on duplicate primary keys.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAligner {
+
+    // sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_item_seq", "order_item",
+            "refund_seq", "refund",
+            "inventory_seq", "inventory");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            String nextFree = "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + ")";
+            jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) SELECT " + nextFree
+                    + " FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM " + sequence + ")");
+            jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, " + nextFree + ")");
+            log.debug("Aligned id sequence {} with table {}", sequence, table);
+        });
+    }
+}
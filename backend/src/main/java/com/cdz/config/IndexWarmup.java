@@ -0,0 +1,49 @@
+package com.cdz.config;
+
+import com.cdz.cache.CustomerSearchIndex;
+import com.cdz.cache.SkuIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the in-memory lookup indexes (SKU, customer search) for every store so the
+ * first scan or search at each till is served from memory. Runs on
+ * ApplicationReadyEvent, after DataSeeder, so seeded rows are included. A failure
+ * only logs: stores then load on first use.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexWarmup {
+
+    private final SkuIndex skuIndex;
+    private final CustomerSearchIndex customerSearchIndex;
+
+    @Value("${catalog.sku-index.warm-on-startup:true}")
+    private boolean warmSkus;
+
+    @Value("${customers.search.warm-on-startup:true}")
+    private boolean warmCustomers;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (warmSkus) {
+            try {
+                skuIndex.warmAll();
+            } catch (RuntimeException e) {
+                log.warn("SKU index warmup failed, stores will load on first lookup", e);
+            }
+        }
+        if (warmCustomers) {
+            try {
+                customerSearchIndex.warmAll();
+            } catch (RuntimeException e) {
+                log.warn("Customer search warmup failed, stores will load on first search", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.cdz.config;
+
+import com.cdz.domain.PaymentType;
+import com.cdz.model.SalesDailyRollup;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Seeds the sales rollup tables from existing orders and refunds the first time
+ * the application starts with them empty. After that SalesRollupWriter keeps
+ * them current, so this is a one-off INSERT ... SELECT per table.
+ * <p>
+ * The seed runs in one transaction and a failure stops start-up. Serving would
+ * let the first checkout write a rollup row, after which the tables are no longer
+ * empty and the orders from before the upgrade would never be counted.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupBackfill {
+
+    private static final String ITEMS_PER_ORDER = "(SELECT order_id, SUM(quantity) AS items FROM order_item GROUP BY order_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (isEmpty("sales_hourly_rollup")) {
+                int rows = jdbcTemplate.update("INSERT INTO sales_hourly_rollup "
+                        + "(store_id, bucket_start, order_count, revenue, items_sold) "
+                        + "SELECT o.store_id, DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), COUNT(*), "
+                        + "COALESCE(SUM(o.total_amount), 0), COALESCE(SUM(i.items), 0) "
+                        + "FROM orders o LEFT JOIN " + ITEMS_PER_ORDER + " i ON i.order_id = o.id "
+                        + "WHERE o.store_id IS NOT NULL AND o.created_at IS NOT NULL "
+                        + "GROUP BY o.store_id, DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00')");
+                log.info("Backfilled {} hourly sales buckets", rows);
+            }
+            if (isEmpty("sales_daily_rollup")) {
+                int rows = jdbcTemplate.update("INSERT INTO sales_daily_rollup "
+                        + "(store_id, sales_date, payment_type, order_count, revenue, items_sold, refund_count, refund_amount) "
+                        + "SELECT o.store_id, DATE(o.created_at), COALESCE(o.payment_type, '"
+                        + SalesDailyRollup.NO_PAYMENT_TYPE + "'), COUNT(*), "
+                        + "COALESCE(SUM(o.total_amount), 0), COALESCE(SUM(i.items), 0), 0, 0 "
+                        + "FROM orders o LEFT JOIN " + ITEMS_PER_ORDER + " i ON i.order_id = o.id "
+                        + "WHERE o.store_id IS NOT NULL AND o.created_at IS NOT NULL "
+                        + "GROUP BY o.store_id, DATE(o.created_at), COALESCE(o.payment_type, '"
+                        + SalesDailyRollup.NO_PAYMENT_TYPE + "')");
+                // refund.payment_type is stored as the enum ordinal
+                String refundPaymentType = refundPaymentTypeName();
+                rows += jdbcTemplate.update("INSERT INTO sales_daily_rollup "
+                        + "(store_id, sales_date, payment_type, order_count, revenue, items_sold, refund_count, refund_amount) "
+                        + "SELECT r.store_id, DATE(r.created_at), " + refundPaymentType + ", 0, 0, 0, COUNT(*), "
+                        + "COALESCE(SUM(r.amount), 0) FROM refund r "
+                        + "WHERE r.store_id IS NOT NULL AND r.created_at IS NOT NULL "
+                        + "GROUP BY r.store_id, DATE(r.created_at), " + refundPaymentType + " "
+                        + "ON DUPLICATE KEY UPDATE refund_count = VALUES(refund_count), "
+                        + "refund_amount = VALUES(refund_amount)");
+                log.info("Backfilled {} daily sales buckets", rows);
+            }
+            if (isEmpty("product_daily_rollup")) {
+                int rows = jdbcTemplate.update("INSERT INTO product_daily_rollup "
+                        + "(store_id, sales_date, product_id, product_name, units_sold, revenue) "
+                        + "SELECT o.store_id, DATE(o.created_at), oi.product_id, MAX(p.name), "
+                        + "COALESCE(SUM(oi.quantity), 0), COALESCE(SUM(oi.price), 0) "
+                        + "FROM order_item oi JOIN orders o ON o.id = oi.order_id "
+                        + "LEFT JOIN product p ON p.id = oi.product_id "
+                        + "WHERE o.store_id IS NOT NULL AND o.created_at IS NOT NULL AND oi.product_id IS NOT NULL "
+                        + "GROUP BY o.store_id, DATE(o.created_at), oi.product_id");
+                log.info("Backfilled {} product-day sales buckets", rows);
+            }
+        });
+    }
+
+    private boolean isEmpty(String table) {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class));
+    }
+
+    private static String refundPaymentTypeName() {
+        StringBuilder sql = new StringBuilder("CASE r.payment_type");
+        for (PaymentType type : PaymentType.values()) {
+            sql.append(" WHEN ").append(type.ordinal()).append(" THEN '").append(type.name()).append("'");
+        }
+        return sql.append(" ELSE '").append(SalesDailyRollup.NO_PAYMENT_TYPE).append("' END").toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.cdz.config;
+
+import com.cdz.domain.PaymentType;
+import com.cdz.model.PaymentSummary;
+import com.cdz.model.PaymentSummaryListConverter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills shift_report.payment_summaries for shifts closed before the column existed,
+ * with one grouped query over their orders. Shifts without orders get an empty
+ * breakdown so they are not scanned again. If it fails, old shift reports show no
+ * payment breakdown until a later start fills them.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class ShiftPaymentSummaryBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Orders without a payment type count as cash, as at close-out
+                Map<Long, Map<PaymentType, PaymentSummary>> byShift = new LinkedHashMap<>();
+                jdbcTemplate.query("SELECT s.id, COALESCE(o.payment_type, '" + PaymentType.CASH.name() + "') AS type, "
+                        + "COUNT(o.id) AS orders, COALESCE(SUM(o.total_amount), 0) AS amount "
+                        + "FROM shift_report s LEFT JOIN orders o ON o.cashier_id = s.cashier_id "
+                        + "AND o.created_at BETWEEN s.shift_start AND s.shift_end "
+                        + "WHERE s.shift_end IS NOT NULL AND s.payment_summaries IS NULL "
+                        + "GROUP BY s.id, COALESCE(o.payment_type, '" + PaymentType.CASH.name() + "')", rs -> {
+                    Map<PaymentType, PaymentSummary> summaries = byShift.computeIfAbsent(rs.getLong("id"),
+                            id -> new EnumMap<>(PaymentType.class));
+                    int orders = rs.getInt("orders");
+                    if (orders == 0) {
+                        return;
+                    }
+                    PaymentSummary summary = new PaymentSummary();
+                    summary.setType(PaymentType.valueOf(rs.getString("type")));
+                    summary.setTransactionCount(orders);
+                    summary.setTotalAmount(rs.getDouble("amount"));
+                    summaries.put(summary.getType(), summary);
+                });
+
+                PaymentSummaryListConverter converter = new PaymentSummaryListConverter();
+                List<Object[]> updates = new ArrayList<>();
+                byShift.forEach((shiftId, summaries) -> updates.add(new Object[] {
+                        converter.convertToDatabaseColumn(new ArrayList<>(summaries.values())), shiftId }));
+
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE shift_report SET payment_summaries = ? WHERE id = ?", updates);
+                    log.info("Backfilled payment breakdowns of {} closed shifts", updates.size());
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Could not backfill payment breakdowns of closed shifts", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.cdz.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies the top products and recent orders of shifts closed while they were stored
+ * as links to product and order rows (the shift_report_top_selling_products and
+ * shift_report_recent_orders join tables) into the shift_report_top_product and
+ * shift_report_recent_order snapshots. Units and revenue of each product are summed
+ * from the cashier's orders during the shift, which is what close-out ranked them by.
+ * Shifts that already have snapshot rows are skipped, and the old join tables are
+ * left in place; on a database that never had them this does nothing.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class ShiftSnapshotBackfill {
+
+    private static final String OLD_TOP_PRODUCTS = "shift_report_top_selling_products";
+    private static final String OLD_RECENT_ORDERS = "shift_report_recent_orders";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        try {
+            if (tableExists(OLD_TOP_PRODUCTS)) {
+                transactionTemplate.executeWithoutResult(status -> copyTopProducts());
+            }
+            if (tableExists(OLD_RECENT_ORDERS)) {
+                transactionTemplate.executeWithoutResult(status -> copyRecentOrders());
+            }
+        } catch (Exception e) {
+            // The reports still open; only the old shifts' top products and recent orders stay empty
+            log.warn("Could not copy top products and recent orders of old shifts", e);
+        }
+    }
+
+    private void copyTopProducts() {
+        Map<Long, Integer> nextIndex = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT j.shift_report_id, p.id, p.name, p.sku, "
+                + "COALESCE(SUM(oi.quantity), 0) AS units, COALESCE(SUM(oi.price), 0) AS revenue "
+                + "FROM " + OLD_TOP_PRODUCTS + " j "
+                + "JOIN shift_report s ON s.id = j.shift_report_id "
+                + "JOIN product p ON p.id = j.top_selling_products_id "
+                + "LEFT JOIN orders o ON o.cashier_id = s.cashier_id "
+                + "AND o.created_at BETWEEN s.shift_start AND s.shift_end "
+                + "LEFT JOIN order_item oi ON oi.order_id = o.id AND oi.product_id = p.id "
+                + "WHERE NOT EXISTS (SELECT 1 FROM shift_report_top_product t WHERE t.shift_report_id = s.id) "
+                + "GROUP BY j.shift_report_id, p.id, p.name, p.sku "
+                + "ORDER BY j.shift_report_id, units DESC, p.id", rs -> {
+            long shiftId = rs.getLong("shift_report_id");
+            rows.add(new Object[] { shiftId, nextIndex.merge(shiftId, 1, Integer::sum) - 1,
+                    rs.getLong("id"), rs.getString("name"), rs.getString("sku"),
+                    rs.getLong("units"), rs.getDouble("revenue") });
+        });
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO shift_report_top_product "
+                    + "(shift_report_id, list_index, product_id, product_name, sku, units_sold, revenue) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+            log.info("Copied top products of {} old shifts", nextIndex.size());
+        }
+    }
+
+    private void copyRecentOrders() {
+        Map<Long, Integer> nextIndex = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT j.shift_report_id, o.id, o.total_amount, o.payment_type, o.created_at "
+                + "FROM " + OLD_RECENT_ORDERS + " j "
+                + "JOIN orders o ON o.id = j.recent_orders_id "
+                + "WHERE NOT EXISTS (SELECT 1 FROM shift_report_recent_order r "
+                + "WHERE r.shift_report_id = j.shift_report_id) "
+                + "ORDER BY j.shift_report_id, o.created_at DESC, o.id DESC", rs -> {
+            long shiftId = rs.getLong("shift_report_id");
+            rows.add(new Object[] { shiftId, nextIndex.merge(shiftId, 1, Integer::sum) - 1,
+                    rs.getLong("id"), rs.getObject("total_amount"), rs.getString("payment_type"),
+                    rs.getTimestamp("created_at") });
+        });
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO shift_report_recent_order "
+                    + "(shift_report_id, list_index, order_id, total_amount, payment_type, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+            log.info("Copied recent orders of {} old shifts", nextIndex.size());
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // MySQL keeps the name as written, H2 upper-cases unquoted names
+            for (String name : new String[] { table, table.toUpperCase() }) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, null)) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,117 @@
+package com.cdz.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * With virtual threads the request concurrency is no longer bounded by Tomcat's pool,
+ * so the DataSource is wrapped in a fair semaphore sized to the connection pool:
+ * a connection is only requested from Hikari once a permit is held, and the permit
+ * is returned when the connection is closed.
+ */
+@Configuration
+@Profile("virtual")
+@Slf4j
+public class VirtualThreadDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimiterPostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    int permits = env.getRequiredProperty("db.connection-limiter.permits", Integer.class);
+                    Duration timeout = env.getProperty("db.connection-limiter.acquire-timeout", Duration.class,
+                            Duration.ofSeconds(30));
+                    log.info("Limiting DataSource '{}' to {} concurrent connections", beanName, permits);
+                    return new ConnectionLimitingDataSource(dataSource, permits, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final long timeoutNanos;
+
+        ConnectionLimitingDataSource(DataSource target, int permits, Duration timeout) {
+            super(target);
+            this.permits = new Semaphore(permits, true);
+            this.timeoutNanos = timeout.toNanos();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new SQLTransientConnectionException("Timed out waiting for a database connection permit");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a database connection permit", e);
+            }
+        }
+
+        private Connection releasingOnClose(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -8,6 +8,14 @@ public class JwtConstant {
 
     public static final String JWT_HEADER = "Authorization";
 
+    // Claim names
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_STORE_ID = "sid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     private JwtConstant() {
         // utility class
     }
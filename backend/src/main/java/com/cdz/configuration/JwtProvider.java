@@ -1,19 +1,17 @@
 package com.cdz.configuration;
 
+import com.cdz.model.User;
+import com.cdz.cache.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.util.Collection;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 
 @Service
 public class JwtProvider {
@@ -24,42 +22,54 @@ public class JwtProvider {
     @Value("${jwt.expiration-ms:86400000}")
     private long expirationMs;
 
+    private final VerifiedTokenCache verifiedTokens;
+
     private SecretKey key;
 
+    // Immutable and thread-safe once built; shared by every request
+    private JwtParser parser;
+
+    public JwtProvider(VerifiedTokenCache verifiedTokens) {
+        this.verifiedTokens = verifiedTokens;
+    }
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
-    public String generateToken(Authentication authentication) {
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        String roles = populateAuthorities(authorities);
+    /**
+     * Issue a token carrying the caller's identity and tenant (see {@link TokenPrincipal}),
+     * so requests can be scoped without loading the user.
+     */
+    public String generateToken(User user) {
+        String role = user.getRole() != null ? user.getRole().name() : "";
 
         return Jwts.builder()
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationMs))
-                .claim("email", authentication.getName())
-                .claim("authorities", roles)
+                .claim(JwtConstant.CLAIM_EMAIL, user.getEmail())
+                .claim(JwtConstant.CLAIM_AUTHORITIES, role)
+                .claim(JwtConstant.CLAIM_USER_ID, user.getId())
+                .claim(JwtConstant.CLAIM_STORE_ID, user.getStore() != null ? user.getStore().getId() : null)
+                .claim(JwtConstant.CLAIM_ROLE, user.getRole() != null ? role : null)
+                .claim(JwtConstant.CLAIM_TOKEN_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0L)
                 .signWith(key)
                 .compact();
     }
 
-    public String getEmailFromToken(String jwt) {
-        jwt = jwt.substring(7);
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseClaimsJws(jwt)
-                .getPayload();
-
-        return String.valueOf(claims.get("email"));
+    /**
+     * Verify a raw token (without the "Bearer " prefix) and return its claims.
+     * Tokens already verified are served from {@link VerifiedTokenCache}.
+     */
+    public Claims parseClaims(String token) {
+        return verifiedTokens.get(token, t -> parser.parseSignedClaims(t).getPayload());
     }
 
-    private String populateAuthorities(Collection<? extends GrantedAuthority> authorities) {
-        Set<String> auths = new HashSet<>();
-        for (GrantedAuthority authority : authorities) {
-            auths.add(authority.getAuthority());
-        }
-        return String.join(",", auths);
+    public String getEmailFromToken(String jwt) {
+        Claims claims = parseClaims(jwt.substring(7));
+
+        return String.valueOf(claims.get(JwtConstant.CLAIM_EMAIL));
     }
 }
@@ -1,8 +1,8 @@
 package com.cdz.configuration;
 
+import com.cdz.cache.PrincipalCache;
+import com.cdz.cache.TokenVersionCache;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,16 +15,19 @@ import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
 
 public class JwtValidator extends OncePerRequestFilter {
 
-    private final SecretKey key;
+    private final JwtProvider jwtProvider;
+    private final TokenVersionCache tokenVersions;
+    private final PrincipalCache principals;
 
-    public JwtValidator(String jwtSecret) {
-        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtValidator(JwtProvider jwtProvider, TokenVersionCache tokenVersions, PrincipalCache principals) {
+        this.jwtProvider = jwtProvider;
+        this.tokenVersions = tokenVersions;
+        this.principals = principals;
     }
 
     @Override
@@ -39,17 +42,29 @@ public class JwtValidator extends OncePerRequestFilter {
             String token = jwt.substring(7);
 
             try {
-                Claims claims = Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseClaimsJws(token)
-                        .getPayload();
+                Claims claims = jwtProvider.parseClaims(token);
 
-                String email = String.valueOf(claims.get("email"));
-                String authorities = String.valueOf(claims.get("authorities"));
+                TokenPrincipal principal = TokenPrincipal.fromClaims(claims);
+                String authorities = String.valueOf(claims.get(JwtConstant.CLAIM_AUTHORITIES));
+
+                if (principal.userId() != null) {
+                    Long currentVersion = tokenVersions.current(principal.userId());
+                    if (currentVersion == null) {
+                        throw new BadCredentialsException("User no longer exists");
+                    }
+                    if (currentVersion != principal.tokenVersion()) {
+                        // Role, store or email changed since the token was issued: take them from the database
+                        TokenPrincipal current = principals.findByEmail(principal.email());
+                        if (current == null || !principal.userId().equals(current.userId())) {
+                            throw new BadCredentialsException("Token is no longer valid");
+                        }
+                        principal = current;
+                        authorities = current.role() != null ? current.role().name() : "";
+                    }
+                }
 
                 List<GrantedAuthority> auths = AuthorityUtils.commaSeparatedStringToAuthorityList(authorities);
-                Authentication auth = new UsernamePasswordAuthenticationToken(email, null, auths);
+                Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, auths);
                 SecurityContextHolder.getContext().setAuthentication(auth);
 
             } catch (Exception e) {
@@ -1,5 +1,8 @@
 package com.cdz.configuration;
 
+import com.cdz.cache.PrincipalCache;
+import com.cdz.cache.TokenVersionCache;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,29 +25,30 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins:http://localhost:5173,http://localhost:3000}")
     private String allowedOrigins;
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtProvider jwtProvider,
+            TokenVersionCache tokenVersions, PrincipalCache principals) throws Exception {
 
         return http.sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        // SSE completion/error dispatches reuse the already authenticated request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/api/billing/webhook").permitAll()
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll())
-                .addFilterBefore(new JwtValidator(jwtSecret), BasicAuthenticationFilter.class)
+                .addFilterBefore(new JwtValidator(jwtProvider, tokenVersions, principals), BasicAuthenticationFilter.class)
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .build();
     }
 
+    /** Raising the strength is picked up on each user's next login (see AuthServiceImpl). */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     private CorsConfigurationSource corsConfigurationSource() {
@@ -53,7 +57,7 @@ public class SecurityConfig {
             cfg.setAllowedOrigins(Arrays.asList("http://localhost:5173", "http://localhost:3000"));
             cfg.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
             cfg.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin",
-                    "Access-Control-Request-Method", "Access-Control-Request-Headers"));
+                    "Access-Control-Request-Method", "Access-Control-Request-Headers", "Idempotency-Key"));
             cfg.setExposedHeaders(Arrays.asList("Authorization"));
             cfg.setAllowCredentials(true);
             cfg.setMaxAge(3600L);
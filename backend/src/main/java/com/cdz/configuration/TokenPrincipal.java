@@ -0,0 +1,44 @@
+package com.cdz.configuration;
+
+import com.cdz.domain.UserRole;
+import com.cdz.model.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Caller identity carried in the signed JWT and placed in the SecurityContext.
+ * Lets services resolve the user and store scope without a database lookup.
+ * {@code userId} is null for tokens issued before these claims existed.
+ */
+public record TokenPrincipal(Long userId, String email, Long storeId, UserRole role, long tokenVersion)
+        implements AuthenticatedPrincipal {
+
+    public static TokenPrincipal of(User user) {
+        return new TokenPrincipal(
+                user.getId(),
+                user.getEmail(),
+                user.getStore() != null ? user.getStore().getId() : null,
+                user.getRole(),
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0L);
+    }
+
+    public static TokenPrincipal fromClaims(Claims claims) {
+        String role = claims.get(JwtConstant.CLAIM_ROLE, String.class);
+        Number version = claims.get(JwtConstant.CLAIM_TOKEN_VERSION, Number.class);
+        return new TokenPrincipal(
+                toLong(claims.get(JwtConstant.CLAIM_USER_ID, Number.class)),
+                String.valueOf(claims.get(JwtConstant.CLAIM_EMAIL)),
+                toLong(claims.get(JwtConstant.CLAIM_STORE_ID, Number.class)),
+                role != null ? UserRole.valueOf(role) : null,
+                version != null ? version.longValue() : 0L);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    private static Long toLong(Number value) {
+        return value != null ? value.longValue() : null;
+    }
+}
@@ -1,11 +1,14 @@
 package com.cdz.controller;
 
+import com.cdz.event.AnalyticsStreamHub;
 import com.cdz.service.AnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +20,7 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final AnalyticsStreamHub analyticsStreamHub;
 
     @GetMapping("/summary/{storeId}")
     @Operation(summary = "Dashboard summary", description = "Total revenue, orders, customers, avg order value")
@@ -52,4 +56,10 @@ public class AnalyticsController {
     public ResponseEntity<List<Map<String, Object>>> getHourlySales(@PathVariable Long storeId) {
         return ResponseEntity.ok(analyticsService.getHourlySales(storeId));
     }
+
+    @GetMapping(value = "/stream/{storeId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live dashboard stream", description = "Server-Sent Events: a 'snapshot' on connect, then coalesced 'delta' events (today/total revenue and orders, hourly buckets, payment types, today's top products) as orders commit")
+    public SseEmitter streamDashboard(@PathVariable Long storeId) {
+        return analyticsStreamHub.subscribe(storeId);
+    }
 }
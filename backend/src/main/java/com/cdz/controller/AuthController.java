@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -29,8 +31,8 @@ public class AuthController {
 
         @PostMapping("/login")
         @Operation(summary = "Login", description = "Authenticate with email and password, returns JWT token")
-        public ResponseEntity<AuthResponse> loginHandler(
+        public CompletableFuture<ResponseEntity<AuthResponse>> loginHandler(
                         @RequestBody UserDto userDto) throws UserException {
-                return ResponseEntity.ok(authService.login(userDto));
+                return authService.login(userDto).thenApply(ResponseEntity::ok);
         }
 }
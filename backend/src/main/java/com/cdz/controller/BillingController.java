@@ -63,10 +63,16 @@ public class BillingController {
     }
 
     @PostMapping("/webhook")
-    @Operation(summary = "Stripe webhook endpoint", description = "Receives Stripe event notifications")
+    @Operation(summary = "Stripe webhook endpoint", description = "Receives Stripe event notifications; payment_intent.* events update the local payment status cache")
     public ResponseEntity<String> handleWebhook(@RequestBody String payload,
             @RequestHeader(value = "Stripe-Signature", required = false) String sigHeader) {
-        // TODO: Implement webhook verification and event handling
-        return ResponseEntity.ok("Received");
+        try {
+            billingService.handleWebhook(payload, sigHeader);
+            return ResponseEntity.ok("Received");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(e.getMessage());
+        }
     }
 }
@@ -1,7 +1,9 @@
 package com.cdz.controller;
 
 import com.cdz.model.Customer;
+import com.cdz.payload.dto.CustomerDTO;
 import com.cdz.payload.response.ApiResponse;
+import com.cdz.payload.response.CursorPage;
 import com.cdz.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -51,18 +53,27 @@ public class CustomerController {
 
     @GetMapping
     @Operation(summary = "Get all customers")
-    public ResponseEntity<List<Customer>> getAll(@RequestHeader("Authorization") String jwt) throws Exception {
-        com.cdz.model.User user = userService.getUserFromJwtToken(jwt);
-        if (user.getStore() != null) {
-            return ResponseEntity.ok(customerService.getCustomersByStoreId(user.getStore().getId()));
+    public ResponseEntity<List<Customer>> getAll() throws Exception {
+        Long storeId = userService.getCurrentStoreId();
+        if (storeId == null) {
+            throw new Exception("User is not associated with any store");
         }
-        return ResponseEntity.ok(customerService.getAllCustomers());
+        return ResponseEntity.ok(customerService.getCustomersByStoreId(storeId));
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search customers by name or phone")
-    public ResponseEntity<List<Customer>> searchCustomer(@RequestParam String q) throws Exception {
-        return ResponseEntity.ok(customerService.searchCustomer(q));
+    @Operation(summary = "Search customers by name, email or phone",
+            description = "Searches the caller's store only. A query of digits (optionally with +, spaces or dashes) "
+                    + "matches phone number prefixes; anything else matches name or email. Pass nextCursor back as "
+                    + "cursor for the next page")
+    public ResponseEntity<CursorPage<CustomerDTO>> searchCustomer(@RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) throws Exception {
+        Long storeId = userService.getCurrentStoreId();
+        if (storeId == null) {
+            throw new Exception("User is not associated with any store");
+        }
+        return ResponseEntity.ok(customerService.searchCustomers(storeId, q, cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -5,6 +5,7 @@ import com.cdz.domain.PaymentType;
 import com.cdz.payload.dto.OrderDTO;
 import com.cdz.payload.dto.ReceiptDTO;
 import com.cdz.payload.response.ApiResponse;
+import com.cdz.payload.response.CursorPage;
 import com.cdz.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,8 +24,12 @@ public class OrderController {
     private final OrderService orderService;
 
     @PostMapping
-    @Operation(summary = "Create a new order")
-    public ResponseEntity<OrderDTO> createOrder(@RequestBody OrderDTO order) throws Exception {
+    @Operation(summary = "Create a new order", description = "Send an Idempotency-Key header to make retries safe: a repeated key returns the original order")
+    public ResponseEntity<OrderDTO> createOrder(@RequestBody OrderDTO order,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws Exception {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            order.setIdempotencyKey(idempotencyKey.trim());
+        }
         return ResponseEntity.ok(orderService.createOrder(order));
     }
 
@@ -35,15 +40,17 @@ public class OrderController {
     }
 
     @GetMapping("/store/{storeId}")
-    @Operation(summary = "Get orders by store", description = "Filter by customer, cashier, payment type, or status")
-    public ResponseEntity<List<OrderDTO>> getOrdersByStore(
+    @Operation(summary = "Get orders by store", description = "Newest first, one page at a time. Filter by customer, cashier, payment type, or status; pass the previous page's nextCursor as cursor to continue")
+    public ResponseEntity<CursorPage<OrderDTO>> getOrdersByStore(
             @PathVariable Long storeId,
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) Long cashierId,
             @RequestParam(required = false) PaymentType paymentType,
-            @RequestParam(required = false) OrderStatus orderStatus) throws Exception {
-        return ResponseEntity
-                .ok(orderService.getOrdersByStore(storeId, customerId, cashierId, paymentType, orderStatus));
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") int size) throws Exception {
+        return ResponseEntity.ok(orderService.getOrdersByStore(storeId, customerId, cashierId, paymentType,
+                orderStatus, cursor, size));
     }
 
     @GetMapping("/today/store/{storeId}")
@@ -1,15 +1,22 @@
 package com.cdz.controller;
 
+import com.cdz.cache.CatalogSnapshotCache;
 import com.cdz.model.User;
 import com.cdz.payload.dto.ProductDTO;
 import com.cdz.payload.response.ApiResponse;
+import com.cdz.payload.response.CatalogDelta;
+import com.cdz.payload.response.SkuLookupResponse;
 import com.cdz.service.ProductService;
 import com.cdz.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,6 +28,8 @@ public class ProductController {
         private final ProductService productService;
         private final UserService userService;
 
+        private static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+
         @PostMapping
         @Operation(summary = "Create a product", description = "Add a new product to the authenticated user's store")
         public ResponseEntity<ProductDTO> create(@RequestBody ProductDTO productDTO,
@@ -30,10 +39,43 @@ public class ProductController {
         }
 
         @GetMapping("/store/{storeId}")
-        @Operation(summary = "Get products by store", description = "Retrieve all products for a given store ID")
-        public ResponseEntity<List<ProductDTO>> getByStoreId(@PathVariable Long storeId,
+        @Operation(summary = "Get products by store", description = "Retrieve all products for a given store ID. "
+                        + "Send If-None-Match with the last ETag to get 304 when nothing changed; "
+                        + "X-Catalog-Version is the version to pass to /changes")
+        public ResponseEntity<byte[]> getByStoreId(@PathVariable Long storeId,
+                        @RequestHeader("Authorization") String jwt,
+                        WebRequest request) throws Exception {
+                CatalogSnapshotCache.Snapshot snapshot = productService.getCatalogSnapshot(storeId);
+                if (request.checkNotModified(snapshot.etag())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .eTag(snapshot.etag())
+                                        .header(CATALOG_VERSION_HEADER, String.valueOf(snapshot.version()))
+                                        .build();
+                }
+                return ResponseEntity.ok()
+                                .eTag(snapshot.etag())
+                                .cacheControl(CacheControl.noCache())
+                                .header(CATALOG_VERSION_HEADER, String.valueOf(snapshot.version()))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(snapshot.json());
+        }
+
+        @GetMapping("/store/{storeId}/changes")
+        @Operation(summary = "Catalog changes", description = "Products created, updated or deleted since the given "
+                        + "catalog version; full=true means the version is unknown and the whole catalog is returned")
+        public ResponseEntity<CatalogDelta> getChanges(@PathVariable Long storeId,
+                        @RequestParam long since,
+                        @RequestHeader("Authorization") String jwt) throws Exception {
+                return ResponseEntity.ok(productService.getCatalogChanges(storeId, since));
+        }
+
+        @GetMapping("/store/{storeId}/sku/{sku}")
+        @Operation(summary = "Find product by SKU", description = "Exact SKU/barcode lookup returning the product "
+                        + "and the store's current stock; 404 when the store has no such SKU")
+        public ResponseEntity<SkuLookupResponse> getBySku(@PathVariable Long storeId,
+                        @PathVariable String sku,
                         @RequestHeader("Authorization") String jwt) throws Exception {
-                return ResponseEntity.ok(productService.getProductsByStoreId(storeId));
+                return ResponseEntity.ok(productService.getBySku(storeId, sku));
         }
 
         @PatchMapping("/{id}")
@@ -47,12 +89,14 @@ public class ProductController {
         }
 
         @GetMapping("/store/{storeId}/search")
-        @Operation(summary = "Search products", description = "Search products in a store by keyword")
+        @Operation(summary = "Search products", description = "Search products in a store by name, brand or SKU; "
+                        + "an exact SKU match is returned first")
         public ResponseEntity<List<ProductDTO>> searchByKeyword(
                         @PathVariable Long storeId,
                         @RequestParam String keyword,
+                        @RequestParam(required = false) Integer limit,
                         @RequestHeader("Authorization") String jwt) throws Exception {
-                return ResponseEntity.ok(productService.searchByKeyword(storeId, keyword));
+                return ResponseEntity.ok(productService.searchByKeyword(storeId, keyword, limit));
         }
 
         @DeleteMapping("/{id}")
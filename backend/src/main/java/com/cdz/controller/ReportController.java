@@ -1,5 +1,6 @@
 package com.cdz.controller;
 
+import com.cdz.domain.ExportFormat;
 import com.cdz.payload.dto.DailySalesReportDTO;
 import com.cdz.payload.dto.ItemSalesReportDTO;
 import com.cdz.service.ReportService;
@@ -7,9 +8,14 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -38,4 +44,39 @@ public class ReportController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(reportService.getItemWiseSalesReport(storeId, startDate, endDate));
     }
+
+    @GetMapping("/daily-sales/{storeId}/export")
+    @Operation(summary = "Export daily sales report", description = "Streams the daily sales report for a date range as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportDailySalesReport(
+            @PathVariable Long storeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return export("daily-sales-" + storeId + "_" + startDate + "_" + endDate, format,
+                out -> reportService.exportDailySales(storeId, startDate, endDate, format, out));
+    }
+
+    @GetMapping("/item-sales/{storeId}/export")
+    @Operation(summary = "Export item-wise sales report", description = "Streams the product-level sales breakdown for a date range as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportItemSalesReport(
+            @PathVariable Long storeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return export("item-sales-" + storeId + "_" + startDate + "_" + endDate, format,
+                out -> reportService.exportItemSales(storeId, startDate, endDate, format, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format,
+            StreamingResponseBody body) {
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + (csv ? ".csv" : ".ndjson"))
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
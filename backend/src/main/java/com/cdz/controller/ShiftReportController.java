@@ -1,6 +1,8 @@
 package com.cdz.controller;
 
 import com.cdz.payload.dto.ShiftReportDTO;
+import com.cdz.payload.dto.ShiftReportSummaryDTO;
+import com.cdz.payload.response.CursorPage;
 import com.cdz.service.ShiftReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,7 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -48,15 +49,21 @@ public class ShiftReportController {
         }
 
         @GetMapping("/cashier/{cashierId}")
-        @Operation(summary = "Get all shift reports for a cashier")
-        public ResponseEntity<List<ShiftReportDTO>> getShiftReportByCashier(@PathVariable Long cashierId) {
-                return ResponseEntity.ok(shiftReportService.getShiftReportsByCashierId(cashierId));
+        @Operation(summary = "Get a page of shift summaries for a cashier, newest first")
+        public ResponseEntity<CursorPage<ShiftReportSummaryDTO>> getShiftReportByCashier(
+                        @PathVariable Long cashierId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "25") int size) {
+                return ResponseEntity.ok(shiftReportService.getShiftReports(null, cashierId, cursor, size));
         }
 
         @GetMapping("/store/{storeId}")
-        @Operation(summary = "Get all shift reports for a store")
-        public ResponseEntity<List<ShiftReportDTO>> getShiftReportByStore(@PathVariable Long storeId) {
-                return ResponseEntity.ok(shiftReportService.getShiftReportsByStoreId(storeId));
+        @Operation(summary = "Get a page of shift summaries for a store, newest first")
+        public ResponseEntity<CursorPage<ShiftReportSummaryDTO>> getShiftReportByStore(
+                        @PathVariable Long storeId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "25") int size) {
+                return ResponseEntity.ok(shiftReportService.getShiftReports(storeId, null, cursor, size));
         }
 
         @GetMapping("/{id}")
@@ -0,0 +1,6 @@
+package com.cdz.domain;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,273 @@
+package com.cdz.event;
+
+import com.cdz.model.SalesDailyRollup;
+import com.cdz.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory fan-out of live dashboard updates, one channel per store.
+ * <p>
+ * A subscriber gets a "snapshot" event on connect. After that, committed sales
+ * are folded into the subscriber's pending delta, and a scheduled flush sends at
+ * most one "delta" event per subscriber per interval however many checkouts ran
+ * meanwhile. Stores nobody is watching cost a map lookup per sale; a channel is
+ * dropped when its last subscriber leaves.
+ * <p>
+ * Every sale carries the store's rollup sequence, and the snapshot carries the
+ * sequence it was read at. A subscriber joins the channel before its snapshot is
+ * read and collects sales from then on; once the snapshot is sent, only sales
+ * numbered above it are kept, so a sale is neither missed nor counted twice
+ * however its commit interleaves with the snapshot read. Both events carry the
+ * server's date, which is the day "today" refers to, and the highest sequence
+ * they count.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsStreamHub {
+
+    private final AnalyticsService analyticsService;
+    private final Map<Long, StoreChannel> channels = new ConcurrentHashMap<>();
+
+    @Value("${analytics.stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${analytics.stream.top-products:20}")
+    private int topProductsLimit;
+
+    public SseEmitter subscribe(Long storeId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        StoreChannel channel = join(storeId, subscriber);
+        emitter.onCompletion(() -> leave(storeId, channel, subscriber));
+        emitter.onTimeout(() -> leave(storeId, channel, subscriber));
+        emitter.onError(e -> leave(storeId, channel, subscriber));
+
+        Map<String, Object> snapshot;
+        try {
+            snapshot = analyticsService.getLiveSnapshot(storeId, topProductsLimit);
+        } catch (RuntimeException e) {
+            leave(storeId, channel, subscriber);
+            throw e;
+        }
+
+        synchronized (channel) {
+            if (!channel.subscribers.contains(subscriber)) {
+                return emitter; // timed out or failed while the snapshot was read
+            }
+            try {
+                emitter.send(SseEmitter.event().name("snapshot").data(snapshot));
+            } catch (IOException e) {
+                leave(storeId, channel, subscriber);
+                emitter.completeWithError(e);
+                return emitter;
+            }
+            subscriber.start(((Number) snapshot.get("sequence")).longValue());
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSalesRecorded(SalesRecordedEvent event) {
+        StoreChannel channel = channels.get(event.storeId());
+        if (channel == null) {
+            return;
+        }
+        channel.accumulate(event);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.stream.flush-interval-ms:1000}")
+    public void flush() {
+        channels.forEach((storeId, channel) -> {
+            Map<Subscriber, PendingDelta> batch = channel.drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            // Read outside the channel lock so checkouts and new subscribers are not held up by it
+            List<Map<String, Object>> topProducts = analyticsService.getTopProducts(storeId, topProductsLimit, "TODAY");
+            synchronized (channel) {
+                batch.forEach((subscriber, delta) -> {
+                    if (!channel.subscribers.contains(subscriber)) {
+                        return;
+                    }
+                    Map<String, Object> payload = delta.toPayload();
+                    // Ranking is sent only if it moved since this subscriber last saw it
+                    if (!topProducts.equals(subscriber.lastTopProducts)) {
+                        subscriber.lastTopProducts = topProducts;
+                        payload.put("todayTopProducts", topProducts);
+                    }
+                    send(storeId, channel, subscriber, SseEmitter.event().name("delta").data(payload));
+                });
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        channels.forEach((storeId, channel) -> {
+            synchronized (channel) {
+                for (Subscriber subscriber : channel.subscribers) {
+                    if (subscriber.started) {
+                        send(storeId, channel, subscriber, SseEmitter.event().comment("keep-alive"));
+                    }
+                }
+            }
+        });
+    }
+
+    private StoreChannel join(Long storeId, Subscriber subscriber) {
+        for (;;) {
+            StoreChannel channel = channels.computeIfAbsent(storeId, id -> new StoreChannel());
+            synchronized (channel) {
+                // A closed channel was removed by its last subscriber leaving; take the new one
+                if (!channel.closed) {
+                    channel.subscribers.add(subscriber);
+                    return channel;
+                }
+            }
+        }
+    }
+
+    private void send(Long storeId, StoreChannel channel, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            leave(storeId, channel, subscriber);
+        }
+    }
+
+    private void leave(Long storeId, StoreChannel channel, Subscriber subscriber) {
+        synchronized (channel) {
+            channel.subscribers.remove(subscriber);
+            if (channel.subscribers.isEmpty() && !channel.closed) {
+                channel.closed = true;
+                channels.remove(storeId, channel);
+            }
+        }
+    }
+
+    /** Guarded by the channel lock. */
+    private static final class StoreChannel {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private boolean closed;
+
+        synchronized void accumulate(SalesRecordedEvent event) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.accept(event);
+            }
+        }
+
+        /** Takes the pending delta of every subscriber that has one. */
+        synchronized Map<Subscriber, PendingDelta> drain() {
+            Map<Subscriber, PendingDelta> batch = new LinkedHashMap<>();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.pending != null) {
+                    batch.put(subscriber, subscriber.pending);
+                    subscriber.pending = null;
+                }
+            }
+            return batch;
+        }
+    }
+
+    /** Guarded by its channel's lock. */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        /** Sales seen before the snapshot was sent; which of them it counts is not known yet. */
+        private List<SalesRecordedEvent> early = new ArrayList<>();
+        private boolean started;
+        /** Highest sequence the snapshot counts. */
+        private long snapshotSequence;
+        private PendingDelta pending;
+        private List<Map<String, Object>> lastTopProducts;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void start(long sequence) {
+            started = true;
+            snapshotSequence = sequence;
+            early.forEach(this::accept);
+            early = null;
+        }
+
+        void accept(SalesRecordedEvent event) {
+            if (!started) {
+                early.add(event);
+            } else if (event.sequence() > snapshotSequence) {
+                if (pending == null) {
+                    pending = new PendingDelta();
+                }
+                pending.add(event);
+            }
+        }
+    }
+
+    /** Sum of everything committed for one subscriber since its last flush. */
+    private static final class PendingDelta {
+        private final LocalDate today = LocalDate.now();
+        private long todayOrders;
+        private double todayRevenue;
+        private long totalOrders;
+        private double totalRevenue;
+        private long itemsSold;
+        private long sequence;
+        private final Map<Integer, Double> hourlySales = new TreeMap<>();
+        private final Map<String, Long> ordersByPaymentType = new TreeMap<>();
+
+        void add(SalesRecordedEvent event) {
+            sequence = Math.max(sequence, event.sequence());
+            totalOrders += event.orders();
+            totalRevenue += event.revenue();
+            itemsSold += event.items();
+            if (!SalesDailyRollup.NO_PAYMENT_TYPE.equals(event.paymentType())) {
+                ordersByPaymentType.merge(event.paymentType(), event.orders(), Long::sum);
+            }
+            if (event.occurredAt() != null && today.equals(event.occurredAt().toLocalDate())) {
+                todayOrders += event.orders();
+                todayRevenue += event.revenue();
+                hourlySales.merge(event.occurredAt().getHour(), event.revenue(), Double::sum);
+            }
+        }
+
+        Map<String, Object> toPayload() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("todayRevenue", Math.round(todayRevenue * 100.0) / 100.0);
+            summary.put("todayOrders", todayOrders);
+            summary.put("totalRevenue", Math.round(totalRevenue * 100.0) / 100.0);
+            summary.put("totalOrders", totalOrders);
+            summary.put("totalProducts", itemsSold);
+
+            List<Map<String, Object>> hourly = new ArrayList<>();
+            hourlySales.forEach((hour, sales) -> {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("hour", String.format("%02d:00", hour));
+                point.put("sales", Math.round(sales * 100.0) / 100.0);
+                hourly.add(point);
+            });
+
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("date", today.toString());
+            payload.put("sequence", sequence);
+            payload.put("summary", summary);
+            payload.put("hourlySales", hourly);
+            payload.put("byPaymentType", ordersByPaymentType);
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.cdz.event;
+
+/**
+ * Published after a customer is created, updated or deleted; the customer search
+ * index re-reads the row once the transaction commits.
+ */
+public record CustomerChangedEvent(Long storeId, Long customerId) {
+}
@@ -0,0 +1,11 @@
+package com.cdz.event;
+
+import java.util.Collection;
+
+/**
+ * Published when stock levels of some products in a store change (checkout, refund,
+ * stock edits, inventory rows added or removed). Carries only ids; listeners re-read
+ * the committed quantities.
+ */
+public record InventoryChangedEvent(Long storeId, Collection<Long> productIds) {
+}
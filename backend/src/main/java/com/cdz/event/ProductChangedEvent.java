@@ -0,0 +1,11 @@
+package com.cdz.event;
+
+/**
+ * Published after a product is created, updated or deleted, so the per-store
+ * catalog snapshot can be patched. A null {@code productId} means several products
+ * of the store changed at once (e.g. a category rename) and the snapshot must be rebuilt.
+ *
+ * @param version the store's catalog version after this change
+ */
+public record ProductChangedEvent(Long storeId, Long productId, long version) {
+}
@@ -0,0 +1,16 @@
+package com.cdz.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by SalesRollupWriter inside the order transaction whenever a sale is
+ * added to (or, with negative deltas, removed from) the rollups. Listeners that
+ * push to clients should use {@code @TransactionalEventListener} so only
+ * committed sales are seen.
+ *
+ * @param sequence    the store's SalesRollupSequence value this sale was recorded under
+ * @param paymentType PaymentType name, or "NONE"
+ */
+public record SalesRecordedEvent(Long storeId, long sequence, LocalDateTime occurredAt, String paymentType,
+        long orders, double revenue, long items) {
+}
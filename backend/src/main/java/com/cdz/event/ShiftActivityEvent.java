@@ -0,0 +1,13 @@
+package com.cdz.event;
+
+import com.cdz.payload.dto.OrderDTO;
+import com.cdz.payload.dto.RefundDTO;
+
+/**
+ * Published when a cashier's sales change, so the running totals of their active
+ * shift can be updated. At most one of {@code order} and {@code refund} is set; both
+ * null means an order or refund of the cashier was deleted and the totals must be
+ * rebuilt.
+ */
+public record ShiftActivityEvent(Long cashierId, OrderDTO order, RefundDTO refund) {
+}
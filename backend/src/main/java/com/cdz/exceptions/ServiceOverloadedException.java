@@ -0,0 +1,12 @@
+package com.cdz.exceptions;
+
+/**
+ * A bounded worker pool is saturated; the request was rejected without queueing
+ * so the caller can retry instead of holding a request thread.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.cdz.mapper;
+
+import com.cdz.model.Customer;
+import com.cdz.payload.dto.CustomerDTO;
+
+public class CustomerMapper {
+
+    public static CustomerDTO toDTO(Customer customer) {
+        return CustomerDTO.builder()
+                .id(customer.getId())
+                .fullName(customer.getFullName())
+                .email(customer.getEmail())
+                .phone(customer.getPhone())
+                .phoneNormalized(customer.getPhoneNormalized())
+                .build();
+    }
+}
@@ -15,6 +15,8 @@ public class InventoryMapper {
                 .product(inventory.getProduct() != null ? ProductMapper.toDTO(inventory.getProduct()) : null)
                 .quantity(inventory.getQuantity())
                 .lowStockThreshold(inventory.getLowStockThreshold())
+                .lastUpdate(inventory.getLastUpdate())
+                .version(inventory.getVersion())
                 .build();
     }
 
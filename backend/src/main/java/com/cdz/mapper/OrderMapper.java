@@ -70,7 +70,9 @@ public class OrderMapper {
                 .customer(order.getCustomer())
 
                 .paymentType(order.getPaymentType())
+                .status(order.getStatus())
                 .stripePaymentIntentId(order.getStripePaymentIntentId())
+                .idempotencyKey(order.getIdempotencyKey())
                 .items((List<OrderItemDTO>) itemDTOs)
                 .build();
     }
@@ -1,13 +1,15 @@
 package com.cdz.mapper;
 
-import com.cdz.model.Order;
-import com.cdz.model.Product;
 import com.cdz.model.Refund;
+import com.cdz.model.ShiftOrderSummary;
+import com.cdz.model.ShiftProductSale;
 import com.cdz.model.ShiftReport;
 import com.cdz.payload.dto.OrderDTO;
 import com.cdz.payload.dto.ProductDTO;
 import com.cdz.payload.dto.RefundDTO;
 import com.cdz.payload.dto.ShiftReportDTO;
+import com.cdz.payload.dto.ShiftReportSummaryDTO;
+import com.cdz.repository.ShiftReportRepository;
 
 import java.util.Collections;
 import java.util.List;
@@ -39,14 +41,40 @@ public class ShiftReportMapper {
     }
 
 
-    private static List<OrderDTO> mapOrders(List<Order> recentOrders) {
+    public static ShiftReportSummaryDTO toSummaryDTO(ShiftReportRepository.ShiftSummary summary) {
+        return ShiftReportSummaryDTO.builder()
+                .id(summary.getId())
+                .cashierId(summary.getCashierId())
+                .cashierName(summary.getCashierName())
+                .storeId(summary.getStoreId())
+                .shiftStart(summary.getShiftStart())
+                .shiftEnd(summary.getShiftEnd())
+                .totalSales(summary.getTotalSales())
+                .totalRefunds(summary.getTotalRefunds())
+                .netSales(summary.getNetSales())
+                .totalOrders(summary.getTotalOrders())
+                .paymentSummaries(summary.getPaymentSummaries())
+                .build();
+    }
+
+    // Close-out keeps order headers and product totals, not links to the live rows
+    private static List<OrderDTO> mapOrders(List<ShiftOrderSummary> recentOrders) {
         if(recentOrders == null || recentOrders.isEmpty()) {return null;}
-        return recentOrders.stream().map(OrderMapper::toDTO).collect(Collectors.toList());
+        return recentOrders.stream().map(order -> OrderDTO.builder()
+                .id(order.getOrderId())
+                .totalAmount(order.getTotalAmount())
+                .paymentType(order.getPaymentType())
+                .createdAt(order.getCreatedAt())
+                .build()).collect(Collectors.toList());
     }
 
-    private static List<ProductDTO> mapProducts(List<Product> topSellingProducts) {
+    private static List<ProductDTO> mapProducts(List<ShiftProductSale> topSellingProducts) {
         if(topSellingProducts == null || topSellingProducts.isEmpty()) {return null;}
-        return topSellingProducts.stream().map(ProductMapper::toDTO).collect(Collectors.toList());
+        return topSellingProducts.stream().map(product -> ProductDTO.builder()
+                .id(product.getProductId())
+                .name(product.getProductName())
+                .sku(product.getSku())
+                .build()).collect(Collectors.toList());
     }
 
     private static List<RefundDTO> mapRefunds(List<Refund> refunds) {
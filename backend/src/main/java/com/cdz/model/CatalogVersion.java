@@ -0,0 +1,26 @@
+package com.cdz.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-store count of catalog changes. Bumped in the same transaction as every
+ * product or category write, so a version means the same catalog on every
+ * instance and across restarts.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    @Id
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(nullable = false)
+    private Long version;
+}
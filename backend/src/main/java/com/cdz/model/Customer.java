@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @EqualsAndHashCode
 @Builder
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_customer_store_phone",
+        columnNames = { "store_id", "phone_normalized" }))
 public class Customer {
 
     @Id
@@ -25,6 +27,11 @@ public class Customer {
 
     private String phone;
 
+    /** {@link #phone} in E.164 form, set by CustomerServiceImpl; unique per store. */
+    @Column(name = "phone_normalized", length = 16)
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private String phoneNormalized;
+
     @ManyToOne
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties("storeAdmin")
     private Store store;
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class Inventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -32,6 +33,11 @@ public class Inventory {
 
     private LocalDateTime lastUpdate;
 
+    // Optimistic lock for admin edits; guarded stock updates bump it too
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @PrePersist
     @PreUpdate
     protected void onUpdate() {
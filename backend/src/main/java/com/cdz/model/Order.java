@@ -1,5 +1,6 @@
 package com.cdz.model;
 
+import com.cdz.domain.OrderStatus;
 import com.cdz.domain.PaymentType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,11 +15,39 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode
 @Builder
-@Table(name = "orders")
+// Fetch plans per endpoint shape; anything not listed is batch-loaded (hibernate.default_batch_fetch_size)
+@NamedEntityGraph(name = Order.GRAPH_LIST, attributeNodes = {
+        @NamedAttributeNode("store"),
+        @NamedAttributeNode("cashier"),
+        @NamedAttributeNode("customer") })
+@NamedEntityGraph(name = Order.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("store"),
+        @NamedAttributeNode("cashier"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "items", subgraph = "items") }, subgraphs = {
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+                @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category")) })
+@NamedEntityGraph(name = Order.GRAPH_RECEIPT, attributeNodes = {
+        @NamedAttributeNode("store"),
+        @NamedAttributeNode("cashier"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "items", subgraph = "items") }, subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
+@Table(name = "orders", uniqueConstraints = @UniqueConstraint(name = "uk_orders_store_idempotency_key", columnNames = {
+        "store_id", "idempotency_key" }), indexes = {
+                @Index(name = "idx_orders_store_created_id", columnList = "store_id, created_at, id"),
+                @Index(name = "idx_orders_cashier_created", columnList = "cashier_id, created_at") })
 public class Order {
 
+    /** Order header with store, cashier and customer; items are batch-loaded per page. */
+    public static final String GRAPH_LIST = "Order.list";
+    /** Everything OrderMapper touches, items and their products included. */
+    public static final String GRAPH_DETAIL = "Order.detail";
+    /** What generateReceipt reads: header plus items and products, without product categories. */
+    public static final String GRAPH_RECEIPT = "Order.receipt";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private Double totalAmount;
@@ -43,12 +72,23 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private PaymentType paymentType;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, columnDefinition = "VARCHAR(20) DEFAULT 'COMPLETED'")
+    private OrderStatus status;
+
     /** Stripe PaymentIntent id when paymentType is CARD (for refunds). */
     private String stripePaymentIntentId;
 
+    /** Client-supplied Idempotency-Key; a retried checkout with the same key replays this order. */
+    @Column(length = 64)
+    private String idempotencyKey;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (status == null) {
+            status = OrderStatus.COMPLETED;
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,63 @@
+package com.cdz.model;
+
+import com.cdz.domain.PaymentType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs a shift's payment breakdown into one short column, e.g.
+ * {@code CASH:12:360.0;CARD:5:200.0} (type, transactions, amount), so it loads
+ * with the shift row. Percentages are not stored; they are derived from the
+ * amounts when read.
+ */
+@Converter
+public class PaymentSummaryListConverter implements AttributeConverter<List<PaymentSummary>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<PaymentSummary> summaries) {
+        if (summaries == null) {
+            return null;
+        }
+        StringBuilder packed = new StringBuilder();
+        for (PaymentSummary summary : summaries) {
+            if (summary.getType() == null) {
+                continue;
+            }
+            if (!packed.isEmpty()) {
+                packed.append(';');
+            }
+            packed.append(summary.getType().name())
+                    .append(':').append(summary.getTransactionCount())
+                    .append(':').append(summary.getTotalAmount() != null ? summary.getTotalAmount() : 0.0);
+        }
+        return packed.toString();
+    }
+
+    @Override
+    public List<PaymentSummary> convertToEntityAttribute(String packed) {
+        if (packed == null) {
+            return null;
+        }
+        List<PaymentSummary> summaries = new ArrayList<>();
+        double total = 0.0;
+        for (String entry : packed.split(";")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 3) {
+                continue;
+            }
+            PaymentSummary summary = new PaymentSummary();
+            summary.setType(PaymentType.valueOf(parts[0]));
+            summary.setTransactionCount(Integer.parseInt(parts[1]));
+            summary.setTotalAmount(Double.parseDouble(parts[2]));
+            total += summary.getTotalAmount();
+            summaries.add(summary);
+        }
+        for (PaymentSummary summary : summaries) {
+            summary.setPercentage(total > 0 ? (summary.getTotalAmount() / total) * 100 : 0.0);
+        }
+        return summaries;
+    }
+}
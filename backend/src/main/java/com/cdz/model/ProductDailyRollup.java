@@ -0,0 +1,42 @@
+package com.cdz.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Units and revenue per product, store and day; backs the top-products report.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "product_daily_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_product_daily_store_date_product", columnNames = {
+        "store_id", "sales_date", "product_id" }))
+public class ProductDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    /** Product name at the time of the latest sale in this bucket. */
+    private String productName;
+
+    @Column(nullable = false)
+    private Long unitsSold;
+
+    @Column(nullable = false)
+    private Double revenue;
+}
@@ -14,10 +14,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_refund_cashier_created", columnList = "cashier_id, created_at"))
 public class Refund {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refund_seq")
+    @SequenceGenerator(name = "refund_seq", sequenceName = "refund_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
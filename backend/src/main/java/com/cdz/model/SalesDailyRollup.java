@@ -0,0 +1,53 @@
+package com.cdz.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Per-store sales and refunds for one day and payment type. Revenue is gross
+ * (refunds are tracked separately), matching what the dashboard has always shown.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_daily_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_store_date_payment", columnNames = {
+        "store_id", "sales_date", "payment_type" }))
+public class SalesDailyRollup {
+
+    /** Bucket used for orders and refunds recorded without a payment type. */
+    public static final String NO_PAYMENT_TYPE = "NONE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    /** PaymentType name, or {@link #NO_PAYMENT_TYPE}; never null so the unique key always applies. */
+    @Column(name = "payment_type", nullable = false, length = 20)
+    private String paymentType;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Double revenue;
+
+    @Column(nullable = false)
+    private Long itemsSold;
+
+    @Column(nullable = false)
+    private Long refundCount;
+
+    @Column(nullable = false)
+    private Double refundAmount;
+}
@@ -0,0 +1,41 @@
+package com.cdz.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-store sales for one clock hour. Maintained incrementally by
+ * {@code SalesRollupWriter}; analytics never scans orders for hourly figures.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_hourly_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_sales_hourly_store_bucket", columnNames = {
+        "store_id", "bucket_start" }))
+public class SalesHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    /** Start of the hour, e.g. 2024-05-01T14:00. */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Double revenue;
+
+    @Column(nullable = false)
+    private Long itemsSold;
+}
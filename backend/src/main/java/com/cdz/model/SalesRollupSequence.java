@@ -0,0 +1,26 @@
+package com.cdz.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-store count of sales applied to the rollups. {@code SalesRollupWriter}
+ * bumps it in the same transaction as the rollup rows, so a reader that sees
+ * sequence N in a consistent snapshot has seen exactly the first N sales.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_rollup_sequence")
+public class SalesRollupSequence {
+
+    @Id
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
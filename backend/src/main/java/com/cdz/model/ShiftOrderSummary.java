@@ -0,0 +1,32 @@
+package com.cdz.model;
+
+import com.cdz.domain.PaymentType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Header of one of the last orders of a closed shift.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShiftOrderSummary {
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    private Double totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentType paymentType;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.cdz.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * One of the top selling products of a closed shift, copied at close-out so the
+ * report does not depend on the product row.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShiftProductSale {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private String productName;
+
+    private String sku;
+
+    @Column(nullable = false)
+    private Long unitsSold;
+
+    @Column(nullable = false)
+    private Double revenue;
+}
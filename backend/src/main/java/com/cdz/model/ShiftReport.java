@@ -12,6 +12,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = {
+        @Index(name = "idx_shift_report_store_start_id", columnList = "store_id, shift_start, id"),
+        @Index(name = "idx_shift_report_cashier_start_id", columnList = "cashier_id, shift_start, id") })
 public class ShiftReport {
 
     @Id
@@ -32,14 +35,22 @@ public class ShiftReport {
     @ManyToOne
     private Store store;
 
-    @Transient
+    /** Per-payment-type totals, packed into one column; written when the shift ends. */
+    @Convert(converter = PaymentSummaryListConverter.class)
+    @Column(name = "payment_summaries")
     private List<PaymentSummary> paymentSummaries;
 
-    @ManyToMany(cascade = CascadeType.MERGE)
-    private List<Product> topSellingProducts;
-
-    @ManyToMany(cascade = CascadeType.MERGE)
-    private List<Order> recentOrders;
+    /** Best sellers by units, best first; written once when the shift ends. */
+    @ElementCollection
+    @CollectionTable(name = "shift_report_top_product", joinColumns = @JoinColumn(name = "shift_report_id"))
+    @OrderColumn(name = "list_index")
+    private List<ShiftProductSale> topSellingProducts;
+
+    /** Latest orders of the shift, newest first; written once when the shift ends. */
+    @ElementCollection
+    @CollectionTable(name = "shift_report_recent_order", joinColumns = @JoinColumn(name = "shift_report_id"))
+    @OrderColumn(name = "list_index")
+    private List<ShiftOrderSummary> recentOrders;
 
     @OneToMany(mappedBy = "shiftReport", cascade = CascadeType.ALL)
     private List<Refund> refunds;
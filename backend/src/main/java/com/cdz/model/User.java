@@ -46,6 +46,10 @@ public class User {
     @Column(length = 1000)
     private String profileImage;
 
+    /** Bumped when role, store or email change; tokens carrying an older version are re-resolved. */
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long tokenVersion = 0L;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
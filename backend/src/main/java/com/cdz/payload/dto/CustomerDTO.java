@@ -0,0 +1,20 @@
+package com.cdz.payload.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/** Immutable, so the search index can hand the same instance to every request. */
+@Value
+@Builder
+public class CustomerDTO {
+
+    Long id;
+
+    String fullName;
+
+    String email;
+
+    String phone;
+
+    String phoneNormalized;
+}
@@ -21,4 +21,6 @@ public class InventoryDTO {
     private Integer lowStockThreshold;
 
     private LocalDateTime lastUpdate;
+
+    private Long version;
 }
@@ -1,5 +1,6 @@
 package com.cdz.payload.dto;
 
+import com.cdz.domain.OrderStatus;
 import com.cdz.domain.PaymentType;
 import com.cdz.model.Customer;
 import com.cdz.model.OrderItem;
@@ -35,11 +36,16 @@ public class OrderDTO {
 
     private PaymentType paymentType;
 
+    private OrderStatus status;
+
     /**
      * When paymentType is CARD, set after Stripe confirms payment (for saving and
      * refunds).
      */
     private String stripePaymentIntentId;
 
+    /** Same value as the Idempotency-Key header; a retry with this key returns the original order. */
+    private String idempotencyKey;
+
     private List<OrderItemDTO> items;
 }
@@ -0,0 +1,30 @@
+package com.cdz.payload.dto;
+
+import com.cdz.model.PaymentSummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Row of the paged shift history; the full report is at GET /api/shift-report/{id}. */
+@Data
+@Builder
+public class ShiftReportSummaryDTO {
+
+    private Long id;
+
+    private Long cashierId;
+    private String cashierName;
+    private Long storeId;
+
+    private LocalDateTime shiftStart;
+    private LocalDateTime shiftEnd;
+
+    private Double totalSales;
+    private Double totalRefunds;
+    private Double netSales;
+    private int totalOrders;
+
+    private List<PaymentSummary> paymentSummaries;
+}
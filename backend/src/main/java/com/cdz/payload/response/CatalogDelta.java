@@ -0,0 +1,25 @@
+package com.cdz.payload.response;
+
+import com.cdz.payload.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Catalog changes since a version the client already holds. When {@code full} is true
+ * the server could not produce a delta (unknown or too old version) and {@code products}
+ * is the whole catalog, replacing the client's copy.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDelta {
+    private long version;
+    private boolean full;
+    private List<ProductDTO> products;
+    private List<Long> deletedIds;
+}
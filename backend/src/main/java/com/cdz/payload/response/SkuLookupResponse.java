@@ -0,0 +1,20 @@
+package com.cdz.payload.response;
+
+import com.cdz.payload.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product found by exact SKU with the store's current stock; {@code quantity}
+ * is null when the store has no inventory row for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuLookupResponse {
+    private ProductDTO product;
+    private Integer quantity;
+}
@@ -0,0 +1,27 @@
+package com.cdz.repository;
+
+import com.cdz.model.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    /** Advances the store's version, creating it on first use. Holds the row lock until commit. */
+    @Modifying
+    @Query(value = "INSERT INTO catalog_version (store_id, version) VALUES (:storeId, 1) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    int increment(@Param("storeId") Long storeId);
+
+    @Query("SELECT v.version FROM CatalogVersion v WHERE v.storeId = :storeId")
+    Optional<Long> findVersion(@Param("storeId") Long storeId);
+
+    /** Advances the store's version and returns the new value. Must run in the writing transaction. */
+    default long next(Long storeId) {
+        increment(storeId);
+        return findVersion(storeId).orElseThrow();
+    }
+}
@@ -2,15 +2,24 @@ package com.cdz.repository;
 
 import com.cdz.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
-    List<Customer> findByFullNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String firstName, String email);
-
     List<Customer> findByStoreId(Long storeId);
 
     long countByStoreId(Long storeId);
 
+    @Query("SELECT DISTINCT c.store.id FROM Customer c")
+    List<Long> findStoreIds();
+
+    Optional<Customer> findByStoreIdAndPhoneNormalized(Long storeId, String phoneNormalized);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.store.id = :storeId AND c.phoneNormalized = :phone")
+    Optional<Long> findIdByStoreIdAndPhoneNormalized(@Param("storeId") Long storeId, @Param("phone") String phone);
+
 }
@@ -5,14 +5,40 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryStockOperations {
 
     Inventory findByProductIdAndStoreId(Long productId, Long storeId);
 
     List<Inventory> findByStoreId(Long storeId);
 
+    List<Inventory> findByStoreIdAndProductIdIn(Long storeId, Collection<Long> productIds);
+
+    @Query("SELECT i.quantity FROM Inventory i WHERE i.product.id = :productId AND i.store.id = :storeId")
+    Integer findQuantityByProductIdAndStoreId(@Param("productId") Long productId, @Param("storeId") Long storeId);
+
     @Query("SELECT i FROM Inventory i WHERE i.store.id = :storeId AND i.quantity <= i.lowStockThreshold")
     List<Inventory> findLowStockByStoreId(@Param("storeId") Long storeId);
+
+    @Query("SELECT i.store.id AS storeId, i.product.id AS productId, i.quantity AS quantity FROM Inventory i "
+            + "WHERE i.store IS NOT NULL AND i.product IS NOT NULL")
+    List<StockLevel> findAllStockLevels();
+
+    @Query("SELECT i.store.id AS storeId, i.product.id AS productId, i.quantity AS quantity FROM Inventory i "
+            + "WHERE i.store.id = :storeId AND i.product IS NOT NULL")
+    List<StockLevel> findStockLevelsByStoreId(@Param("storeId") Long storeId);
+
+    @Query("SELECT i.store.id AS storeId, i.product.id AS productId, i.quantity AS quantity FROM Inventory i "
+            + "WHERE i.store.id = :storeId AND i.product.id IN :productIds")
+    List<StockLevel> findStockLevels(@Param("storeId") Long storeId, @Param("productIds") Collection<Long> productIds);
+
+    interface StockLevel {
+        Long getStoreId();
+
+        Long getProductId();
+
+        Integer getQuantity();
+    }
 }
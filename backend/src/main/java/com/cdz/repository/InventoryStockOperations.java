@@ -0,0 +1,58 @@
+package com.cdz.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Guarded stock mutations for {@link com.cdz.model.Inventory}.
+ * Every change is a single conditional UPDATE, so concurrent terminals never
+ * overwrite each other's quantity and stock can never go negative.
+ */
+public interface InventoryStockOperations {
+
+    /**
+     * Take {@code quantity} units off the product's stock, only if at least that many are available.
+     *
+     * @return true if the row was updated, false if stock was insufficient or no inventory row exists
+     */
+    @Transactional
+    boolean decrementStock(Long storeId, Long productId, int quantity);
+
+    /**
+     * Put {@code quantity} units back on the product's stock.
+     *
+     * @return true if an inventory row was updated
+     */
+    @Transactional
+    boolean incrementStock(Long storeId, Long productId, int quantity);
+
+    /**
+     * Decrement every line of a basket with all-or-nothing semantics. Lines are applied in
+     * product id order so concurrent baskets lock rows in the same order; if any line is
+     * rejected, the lines already applied are put back before returning.
+     *
+     * @param quantitiesByProductId requested units keyed by product id
+     */
+    @Transactional
+    StockMutationResult decrementAll(Long storeId, Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Increment every line, e.g. when an order is refunded. Lines without an inventory row are skipped.
+     *
+     * @return number of inventory rows updated
+     */
+    @Transactional
+    int incrementAll(Long storeId, Map<Long, Integer> quantitiesByProductId);
+
+    record StockMutationResult(boolean applied, Long rejectedProductId) {
+
+        public static StockMutationResult success() {
+            return new StockMutationResult(true, null);
+        }
+
+        public static StockMutationResult rejected(Long productId) {
+            return new StockMutationResult(false, productId);
+        }
+    }
+}
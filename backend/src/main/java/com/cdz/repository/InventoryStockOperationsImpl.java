@@ -0,0 +1,73 @@
+package com.cdz.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class InventoryStockOperationsImpl implements InventoryStockOperations {
+
+    private static final String DECREMENT = "UPDATE Inventory i " +
+            "SET i.quantity = i.quantity - :quantity, i.lastUpdate = :now, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.store.id = :storeId AND i.product.id = :productId AND i.quantity >= :quantity";
+
+    private static final String INCREMENT = "UPDATE Inventory i " +
+            "SET i.quantity = i.quantity + :quantity, i.lastUpdate = :now, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.store.id = :storeId AND i.product.id = :productId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean decrementStock(Long storeId, Long productId, int quantity) {
+        return execute(DECREMENT, storeId, productId, quantity) == 1;
+    }
+
+    @Override
+    public boolean incrementStock(Long storeId, Long productId, int quantity) {
+        return execute(INCREMENT, storeId, productId, quantity) == 1;
+    }
+
+    @Override
+    public StockMutationResult decrementAll(Long storeId, Map<Long, Integer> quantitiesByProductId) {
+        List<Map.Entry<Long, Integer>> applied = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProductId).entrySet()) {
+            if (!decrementStock(storeId, line.getKey(), line.getValue())) {
+                // Put back what was already taken so the basket is all-or-nothing
+                for (Map.Entry<Long, Integer> done : applied) {
+                    incrementStock(storeId, done.getKey(), done.getValue());
+                }
+                return StockMutationResult.rejected(line.getKey());
+            }
+            applied.add(line);
+        }
+        return StockMutationResult.success();
+    }
+
+    @Override
+    public int incrementAll(Long storeId, Map<Long, Integer> quantitiesByProductId) {
+        int updated = 0;
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProductId).entrySet()) {
+            if (incrementStock(storeId, line.getKey(), line.getValue())) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private int execute(String jpql, Long storeId, Long productId, int quantity) {
+        return entityManager.createQuery(jpql)
+                .setParameter("quantity", quantity)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("storeId", storeId)
+                .setParameter("productId", productId)
+                .executeUpdate();
+    }
+}
@@ -1,10 +1,37 @@
 package com.cdz.repository;
 
 import com.cdz.model.OrderItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @org.springframework.data.jpa.repository.Query("SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.store.id = :storeId")
     Long sumQuantityByStoreId(Long storeId);
+
+    /** Units and revenue per product over a cashier's shift, best sellers first. */
+    @Query("SELECT p.id AS productId, MAX(p.name) AS productName, MAX(p.sku) AS sku, "
+            + "SUM(oi.quantity) AS unitsSold, COALESCE(SUM(oi.price), 0) AS revenue "
+            + "FROM OrderItem oi JOIN oi.order o JOIN oi.product p "
+            + "WHERE o.cashier.id = :cashierId AND o.createdAt BETWEEN :from AND :to "
+            + "GROUP BY p.id ORDER BY SUM(oi.quantity) DESC")
+    List<ShiftProductSales> findTopProductsForCashier(@Param("cashierId") Long cashierId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
+    interface ShiftProductSales {
+        Long getProductId();
+
+        String getProductName();
+
+        String getSku();
+
+        Long getUnitsSold();
+
+        Double getRevenue();
+    }
 }
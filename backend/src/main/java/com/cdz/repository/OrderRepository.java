@@ -1,30 +1,107 @@
 package com.cdz.repository;
 
+import com.cdz.domain.OrderStatus;
+import com.cdz.domain.PaymentType;
 import com.cdz.model.Order;
 import com.cdz.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @EntityGraph(Order.GRAPH_LIST)
     List<Order> findByCustomerId(Long customerId);
 
+    @EntityGraph(Order.GRAPH_DETAIL)
+    Optional<Order> findDetailById(Long id);
+
+    @EntityGraph(Order.GRAPH_RECEIPT)
+    Optional<Order> findReceiptById(Long id);
+
     List<Order> findByStoreId(Long storeId);
 
     List<Order> findByStoreIdOrderByCreatedAtDesc(Long storeId);
 
+    /**
+     * Keyset page of a store's orders, newest first, walking idx_orders_store_created_id.
+     * Pass a null cursor for the first page, otherwise the (createdAt, id) of the last row seen.
+     */
+    @EntityGraph(Order.GRAPH_LIST)
+    @org.springframework.data.jpa.repository.Query("SELECT o FROM Order o WHERE o.store.id = :storeId "
+            + "AND (:customerId IS NULL OR o.customer.id = :customerId) "
+            + "AND (:cashierId IS NULL OR o.cashier.id = :cashierId) "
+            + "AND (:paymentType IS NULL OR o.paymentType = :paymentType) "
+            + "AND (:status IS NULL OR o.status = :status) "
+            + "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt "
+            + "OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByStore(
+            @org.springframework.data.repository.query.Param("storeId") Long storeId,
+            @org.springframework.data.repository.query.Param("customerId") Long customerId,
+            @org.springframework.data.repository.query.Param("cashierId") Long cashierId,
+            @org.springframework.data.repository.query.Param("paymentType") PaymentType paymentType,
+            @org.springframework.data.repository.query.Param("status") OrderStatus status,
+            @org.springframework.data.repository.query.Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @org.springframework.data.repository.query.Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @EntityGraph(Order.GRAPH_LIST)
     List<Order> findByCashierId(Long cashierId);
 
+    @EntityGraph(Order.GRAPH_LIST)
     List<Order> findByStoreIdAndCreatedAtBetween(Long storeId, LocalDateTime from, LocalDateTime to);
 
+    @EntityGraph(Order.GRAPH_LIST)
     List<Order> findByCashierAndCreatedAtBetween(User cashier, LocalDateTime from, LocalDateTime to);
 
+    @EntityGraph(Order.GRAPH_LIST)
+    List<Order> findByCashierIdAndCreatedAtBetween(Long cashierId, LocalDateTime from, LocalDateTime to);
+
+    @EntityGraph(Order.GRAPH_LIST)
     List<Order> findTop5ByStoreIdOrderByCreatedAtDesc(Long storeId);
 
+    /** Order count and revenue per payment type for a cashier's shift; walks idx_orders_cashier_created. */
+    @org.springframework.data.jpa.repository.Query("SELECT o.paymentType AS paymentType, COUNT(o) AS orders, "
+            + "COALESCE(SUM(o.totalAmount), 0) AS amount FROM Order o "
+            + "WHERE o.cashier.id = :cashierId AND o.createdAt BETWEEN :from AND :to GROUP BY o.paymentType")
+    List<PaymentTotals> sumByPaymentTypeForCashier(
+            @org.springframework.data.repository.query.Param("cashierId") Long cashierId,
+            @org.springframework.data.repository.query.Param("from") LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") LocalDateTime to);
+
+    List<OrderSummary> findTop5ByCashierIdAndCreatedAtBetweenOrderByCreatedAtDesc(Long cashierId,
+            LocalDateTime from, LocalDateTime to);
+
+    @org.springframework.data.jpa.repository.Query("SELECT o.id FROM Order o WHERE o.store.id = :storeId AND o.idempotencyKey = :idempotencyKey")
+    Optional<Long> findIdByStoreIdAndIdempotencyKey(
+            @org.springframework.data.repository.query.Param("storeId") Long storeId,
+            @org.springframework.data.repository.query.Param("idempotencyKey") String idempotencyKey);
+
     long countByStoreId(Long storeId);
 
     @org.springframework.data.jpa.repository.Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.store.id = :storeId")
     Double sumTotalAmountByStoreId(@org.springframework.data.repository.query.Param("storeId") Long storeId);
+
+    interface PaymentTotals {
+        PaymentType getPaymentType();
+
+        Long getOrders();
+
+        Double getAmount();
+    }
+
+    interface OrderSummary {
+        Long getId();
+
+        Double getTotalAmount();
+
+        PaymentType getPaymentType();
+
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -0,0 +1,46 @@
+package com.cdz.repository;
+
+import com.cdz.model.ProductDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductDailyRollupRepository extends JpaRepository<ProductDailyRollup, Long> {
+
+    @Query("SELECT p.productId AS productId, MAX(p.productName) AS productName, SUM(p.unitsSold) AS unitsSold, "
+            + "SUM(p.revenue) AS revenue FROM ProductDailyRollup p "
+            + "WHERE p.storeId = :storeId AND p.salesDate BETWEEN :from AND :to "
+            + "GROUP BY p.productId ORDER BY SUM(p.unitsSold) DESC")
+    List<ProductSales> findTopProducts(@Param("storeId") Long storeId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to, Pageable pageable);
+
+    @Query("SELECT p.productId AS productId, MAX(p.productName) AS productName, SUM(p.unitsSold) AS unitsSold, "
+            + "SUM(p.revenue) AS revenue FROM ProductDailyRollup p WHERE p.storeId = :storeId "
+            + "GROUP BY p.productId ORDER BY SUM(p.unitsSold) DESC")
+    List<ProductSales> findTopProducts(@Param("storeId") Long storeId, Pageable pageable);
+
+    /** Adds deltas to the product's day bucket, creating it on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO product_daily_rollup (store_id, sales_date, product_id, product_name, units_sold, revenue) "
+            + "VALUES (:storeId, :salesDate, :productId, :productName, :units, :revenue) "
+            + "ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), "
+            + "units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)", nativeQuery = true)
+    int upsert(@Param("storeId") Long storeId, @Param("salesDate") LocalDate salesDate,
+            @Param("productId") Long productId, @Param("productName") String productName,
+            @Param("units") long units, @Param("revenue") double revenue);
+
+    interface ProductSales {
+        Long getProductId();
+
+        String getProductName();
+
+        Long getUnitsSold();
+
+        Double getRevenue();
+    }
+}
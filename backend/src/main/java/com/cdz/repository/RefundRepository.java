@@ -1,8 +1,12 @@
 package com.cdz.repository;
 
 import com.cdz.model.Refund;
+import com.cdz.model.ShiftReport;
 import com.cdz.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,4 +24,16 @@ public interface RefundRepository extends JpaRepository<Refund, Long> {
     List<Refund> findByShiftReportId(Long id);
 
     List<Refund> findByStoreId(Long storeId);
+
+    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM Refund r "
+            + "WHERE r.cashier.id = :cashierId AND r.createdAt BETWEEN :from AND :to")
+    double sumAmountForCashier(@Param("cashierId") Long cashierId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /** Links the cashier's refunds in the window to their shift in one statement. */
+    @Modifying
+    @Query("UPDATE Refund r SET r.shiftReport = :shiftReport "
+            + "WHERE r.cashier.id = :cashierId AND r.createdAt BETWEEN :from AND :to AND r.shiftReport IS NULL")
+    int attachToShift(@Param("shiftReport") ShiftReport shiftReport, @Param("cashierId") Long cashierId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
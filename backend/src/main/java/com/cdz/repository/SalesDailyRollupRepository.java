@@ -0,0 +1,57 @@
+package com.cdz.repository;
+
+import com.cdz.model.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, Long> {
+
+    List<SalesDailyRollup> findByStoreIdAndSalesDateBetween(Long storeId, LocalDate from, LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(d.orderCount), 0) AS orderCount, COALESCE(SUM(d.revenue), 0) AS revenue, "
+            + "COALESCE(SUM(d.itemsSold), 0) AS itemsSold FROM SalesDailyRollup d WHERE d.storeId = :storeId")
+    SalesTotals sumTotalsByStoreId(@Param("storeId") Long storeId);
+
+    @Query("SELECT d.paymentType AS paymentType, SUM(d.orderCount) AS orderCount FROM SalesDailyRollup d "
+            + "WHERE d.storeId = :storeId GROUP BY d.paymentType")
+    List<PaymentTypeCount> countOrdersByPaymentType(@Param("storeId") Long storeId);
+
+    /** Adds order deltas to the day bucket for a payment type, creating it on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup (store_id, sales_date, payment_type, order_count, revenue, items_sold, "
+            + "refund_count, refund_amount) VALUES (:storeId, :salesDate, :paymentType, :orders, :revenue, :items, 0, 0) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "revenue = revenue + VALUES(revenue), items_sold = items_sold + VALUES(items_sold)", nativeQuery = true)
+    int upsertSales(@Param("storeId") Long storeId, @Param("salesDate") LocalDate salesDate,
+            @Param("paymentType") String paymentType, @Param("orders") long orders,
+            @Param("revenue") double revenue, @Param("items") long items);
+
+    /** Adds refund deltas to the day bucket for a payment type, creating it on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup (store_id, sales_date, payment_type, order_count, revenue, items_sold, "
+            + "refund_count, refund_amount) VALUES (:storeId, :salesDate, :paymentType, 0, 0, 0, :refunds, :amount) "
+            + "ON DUPLICATE KEY UPDATE refund_count = refund_count + VALUES(refund_count), "
+            + "refund_amount = refund_amount + VALUES(refund_amount)", nativeQuery = true)
+    int upsertRefunds(@Param("storeId") Long storeId, @Param("salesDate") LocalDate salesDate,
+            @Param("paymentType") String paymentType, @Param("refunds") long refunds,
+            @Param("amount") double amount);
+
+    interface SalesTotals {
+        Long getOrderCount();
+
+        Double getRevenue();
+
+        Long getItemsSold();
+    }
+
+    interface PaymentTypeCount {
+        String getPaymentType();
+
+        Long getOrderCount();
+    }
+}
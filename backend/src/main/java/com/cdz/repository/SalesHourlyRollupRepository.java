@@ -0,0 +1,24 @@
+package com.cdz.repository;
+
+import com.cdz.model.SalesHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesHourlyRollupRepository extends JpaRepository<SalesHourlyRollup, Long> {
+
+    List<SalesHourlyRollup> findByStoreIdAndBucketStartBetween(Long storeId, LocalDateTime start, LocalDateTime end);
+
+    /** Adds the deltas to the hour bucket, creating it on first use. Negative deltas reverse a sale. */
+    @Modifying
+    @Query(value = "INSERT INTO sales_hourly_rollup (store_id, bucket_start, order_count, revenue, items_sold) "
+            + "VALUES (:storeId, :bucketStart, :orders, :revenue, :items) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "revenue = revenue + VALUES(revenue), items_sold = items_sold + VALUES(items_sold)", nativeQuery = true)
+    int upsert(@Param("storeId") Long storeId, @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("orders") long orders, @Param("revenue") double revenue, @Param("items") long items);
+}
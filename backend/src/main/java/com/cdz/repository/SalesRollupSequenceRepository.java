@@ -0,0 +1,21 @@
+package com.cdz.repository;
+
+import com.cdz.model.SalesRollupSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SalesRollupSequenceRepository extends JpaRepository<SalesRollupSequence, Long> {
+
+    /** Advances the store's sequence, creating it on first use. Holds the row lock until commit. */
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_sequence (store_id, last_sequence) VALUES (:storeId, 1) "
+            + "ON DUPLICATE KEY UPDATE last_sequence = last_sequence + 1", nativeQuery = true)
+    int increment(@Param("storeId") Long storeId);
+
+    @Query("SELECT s.lastSequence FROM SalesRollupSequence s WHERE s.storeId = :storeId")
+    Optional<Long> findLastSequence(@Param("storeId") Long storeId);
+}
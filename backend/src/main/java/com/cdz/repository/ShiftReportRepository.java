@@ -1,8 +1,13 @@
 package com.cdz.repository;
 
+import com.cdz.model.PaymentSummary;
 import com.cdz.model.ShiftReport;
 import com.cdz.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -12,17 +17,65 @@ import java.util.Optional;
 @Repository
 public interface ShiftReportRepository extends JpaRepository<ShiftReport, Long> {
 
-    List<ShiftReport> findByCashierId(Long id);
+    /**
+     * Keyset page of shift summaries, newest first, optionally limited to a store and/or cashier.
+     * Pass a null cursor for the first page, otherwise the (shiftStart, id) of the last row seen.
+     */
+    @Query("SELECT s.id AS id, c.id AS cashierId, c.fullName AS cashierName, s.store.id AS storeId, "
+            + "s.shiftStart AS shiftStart, s.shiftEnd AS shiftEnd, s.totalSales AS totalSales, "
+            + "s.totalRefunds AS totalRefunds, s.netSales AS netSales, s.totalOrders AS totalOrders, "
+            + "s.paymentSummaries AS paymentSummaries "
+            + "FROM ShiftReport s LEFT JOIN s.cashier c "
+            + "WHERE (:storeId IS NULL OR s.store.id = :storeId) "
+            + "AND (:cashierId IS NULL OR c.id = :cashierId) "
+            + "AND (:cursorStart IS NULL OR s.shiftStart < :cursorStart "
+            + "OR (s.shiftStart = :cursorStart AND s.id < :cursorId)) "
+            + "ORDER BY s.shiftStart DESC, s.id DESC")
+    List<ShiftSummary> findSummaryPage(
+            @Param("storeId") Long storeId,
+            @Param("cashierId") Long cashierId,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 
-    List<ShiftReport> findByStoreId(Long storeId);
+    // Cashier and store are joined; recent orders, top products and refunds are batch-loaded
+    @EntityGraph(attributePaths = { "cashier", "store" })
+    Optional<ShiftReport> findDetailById(Long id);
 
 
     Optional<ShiftReport> findTopByCashierAndShiftEndIsNullOrderByShiftStartDesc(User cashier);
 
+    Optional<ShiftReport> findTopByCashierIdAndShiftEndIsNullOrderByShiftStartDesc(Long cashierId);
+
 
     Optional<ShiftReport> findByCashierAndShiftStartBetween(
             User cashier,
             LocalDateTime start,
             LocalDateTime end
     );
-}
\ No newline at end of file
+
+    /** One row of the shift history; the detail (orders, products, refunds) is only loaded by id. */
+    interface ShiftSummary {
+        Long getId();
+
+        Long getCashierId();
+
+        String getCashierName();
+
+        Long getStoreId();
+
+        LocalDateTime getShiftStart();
+
+        LocalDateTime getShiftEnd();
+
+        Double getTotalSales();
+
+        Double getTotalRefunds();
+
+        Double getNetSales();
+
+        int getTotalOrders();
+
+        List<PaymentSummary> getPaymentSummaries();
+    }
+}
@@ -3,11 +3,30 @@ package com.cdz.repository;
 import com.cdz.model.Store;
 import com.cdz.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String username);
     List<User> findByStore(Store store);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Long findTokenVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :at WHERE u.id = :id")
+    int updateLastLogin(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    /** Replaces the hash only if it is still the one that was verified, so a concurrent password change wins. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int rehashPassword(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
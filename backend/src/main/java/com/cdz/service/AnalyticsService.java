@@ -14,4 +14,6 @@ public interface AnalyticsService {
     Map<String, Object> getOrderStats(Long storeId);
 
     List<Map<String, Object>> getHourlySales(Long storeId);
+
+    Map<String, Object> getLiveSnapshot(Long storeId, int topProductsLimit);
 }
@@ -4,9 +4,12 @@ import com.cdz.exceptions.UserException;
 import com.cdz.payload.dto.UserDto;
 import com.cdz.payload.response.AuthResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
 
     AuthResponse signup(UserDto userDto) throws UserException;
-    AuthResponse login(UserDto userDto) throws UserException;
+    /** Completes once the password has been checked on the hashing pool. */
+    CompletableFuture<AuthResponse> login(UserDto userDto) throws UserException;
 
 }
@@ -17,10 +17,18 @@ public interface BillingService {
 
     /**
      * Verify that a PaymentIntent has succeeded (status = succeeded).
-     * Call before saving an order with paymentType CARD and this paymentIntentId.
+     * Answers from the local status cache when a webhook or earlier lookup already saw a final status;
+     * otherwise asks Stripe. Call before opening the order transaction, never inside it.
      */
     boolean verifyPaymentSucceeded(String paymentIntentId) throws Exception;
 
+    /**
+     * Verify a Stripe webhook delivery and record any PaymentIntent status change it carries.
+     *
+     * @throws IllegalArgumentException when the signature or payload is invalid
+     */
+    void handleWebhook(String payload, String signatureHeader);
+
     /**
      * Refund a card payment via Stripe. Use when refunding an order that was paid by CARD.
      *
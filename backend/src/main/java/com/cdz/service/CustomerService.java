@@ -1,6 +1,9 @@
 package com.cdz.service;
 
 import com.cdz.model.Customer;
+import com.cdz.payload.dto.CustomerDTO;
+import com.cdz.model.Store;
+import com.cdz.payload.response.CursorPage;
 
 import java.util.List;
 
@@ -8,16 +11,24 @@ public interface CustomerService {
 
     Customer createCustomer(Customer customer);
 
+    /**
+     * Id of the store's customer with this phone number (in any notation),
+     * creating one named {@code fullName} if there is none.
+     */
+    Long findOrCreateByPhone(Store store, String phone, String fullName);
+
     Customer updateCustomer(Long id, Customer customer) throws Exception;
 
     void deleteCustomer(Long id) throws Exception;
 
     Customer getCustomer(Long id) throws Exception;
 
-    List<Customer> getAllCustomers() throws Exception;
-
     List<Customer> getCustomersByStoreId(Long storeId);
 
-    List<Customer> searchCustomer(String keyword) throws Exception;
+    /**
+     * Ranked search within one store over name, email and phone prefix.
+     * {@code cursor} is the {@code nextCursor} of the previous page, or null.
+     */
+    CursorPage<CustomerDTO> searchCustomers(Long storeId, String query, String cursor, int size);
 
 }
@@ -4,6 +4,7 @@ import com.cdz.domain.OrderStatus;
 import com.cdz.domain.PaymentType;
 import com.cdz.payload.dto.OrderDTO;
 import com.cdz.payload.dto.ReceiptDTO;
+import com.cdz.payload.response.CursorPage;
 
 import java.util.List;
 
@@ -15,11 +16,17 @@ public interface OrderService {
 
     OrderDTO getOrderById(Long id) throws Exception;
 
-    List<OrderDTO> getOrdersByStore(Long storeId,
+    /**
+     * Newest-first page of a store's orders. {@code cursor} is the {@code nextCursor}
+     * of the previous page, or null for the first page.
+     */
+    CursorPage<OrderDTO> getOrdersByStore(Long storeId,
             Long customerId,
             Long cashierId,
             PaymentType paymentType,
-            OrderStatus orderStatus) throws Exception;
+            OrderStatus orderStatus,
+            String cursor,
+            int size) throws Exception;
 
     List<OrderDTO> getOrdersByCashier(Long cashierId);
 
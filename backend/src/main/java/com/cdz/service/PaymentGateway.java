@@ -0,0 +1,28 @@
+package com.cdz.service;
+
+import java.util.Optional;
+
+/**
+ * Read side of the card payment provider: PaymentIntent status lookups and
+ * webhook decoding. Stripe in production; a local stub can stand in for tests.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Fetch the current status of a PaymentIntent from the provider (a remote call).
+     *
+     * @return provider status, e.g. "succeeded", "processing", "canceled"
+     */
+    String fetchPaymentIntentStatus(String paymentIntentId) throws Exception;
+
+    /**
+     * Verify a webhook delivery and extract the PaymentIntent status change it carries.
+     *
+     * @return the new status, or empty when the event is not about a PaymentIntent
+     * @throws IllegalArgumentException when the signature or payload is invalid
+     */
+    Optional<PaymentIntentStatus> parseWebhookEvent(String payload, String signatureHeader);
+
+    record PaymentIntentStatus(String paymentIntentId, String status) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.cdz.service;
 
+import com.cdz.cache.CatalogSnapshotCache;
 import com.cdz.model.User;
 import com.cdz.payload.dto.ProductDTO;
+import com.cdz.payload.response.CatalogDelta;
+import com.cdz.payload.response.SkuLookupResponse;
 
 import java.util.List;
 
@@ -11,5 +14,8 @@ public interface ProductService {
     ProductDTO updateProduct(Long id, ProductDTO productDTO, User user) throws Exception;
     void deleteProduct(Long id, User user) throws Exception;
     List<ProductDTO>getProductsByStoreId (Long storeId);
-    List<ProductDTO>searchByKeyword (Long storeId, String keyword);
+    List<ProductDTO>searchByKeyword (Long storeId, String keyword, Integer limit);
+    CatalogSnapshotCache.Snapshot getCatalogSnapshot(Long storeId);
+    CatalogDelta getCatalogChanges(Long storeId, long sinceVersion);
+    SkuLookupResponse getBySku(Long storeId, String sku);
 }
@@ -1,8 +1,11 @@
 package com.cdz.service;
 
+import com.cdz.domain.ExportFormat;
 import com.cdz.payload.dto.DailySalesReportDTO;
 import com.cdz.payload.dto.ItemSalesReportDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -11,4 +14,12 @@ public interface ReportService {
     List<DailySalesReportDTO> getDailySalesReport(Long storeId, LocalDate startDate, LocalDate endDate);
 
     List<ItemSalesReportDTO> getItemWiseSalesReport(Long storeId, LocalDate startDate, LocalDate endDate);
+
+    /** Writes the daily sales report to {@code out} row by row, as it is read from the database. */
+    void exportDailySales(Long storeId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+            OutputStream out) throws IOException;
+
+    /** Writes the item-wise sales report to {@code out} row by row, as it is read from the database. */
+    void exportItemSales(Long storeId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+            OutputStream out) throws IOException;
 }
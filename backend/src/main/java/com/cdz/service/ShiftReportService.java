@@ -2,9 +2,10 @@ package com.cdz.service;
 
 import com.cdz.exceptions.UserException;
 import com.cdz.payload.dto.ShiftReportDTO;
+import com.cdz.payload.dto.ShiftReportSummaryDTO;
+import com.cdz.payload.response.CursorPage;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 public interface ShiftReportService {
 
@@ -16,11 +17,12 @@ public interface ShiftReportService {
 
     ShiftReportDTO getShiftReportById(Long id) throws Exception;
 
-    List<ShiftReportDTO> getAllShiftReports();
-
-    List<ShiftReportDTO> getShiftReportsByStoreId(Long storeId);
-
-    List<ShiftReportDTO> getShiftReportsByCashierId(Long cashierId);
+    /**
+     * Newest first, as summaries without orders, products or refunds. Either filter may be null.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    CursorPage<ShiftReportSummaryDTO> getShiftReports(Long storeId, Long cashierId, String cursor, int size);
 
     ShiftReportDTO getCurrentShiftProgress(Long cashierId) throws Exception;
 
@@ -1,5 +1,6 @@
 package com.cdz.service;
 
+import com.cdz.configuration.TokenPrincipal;
 import com.cdz.exceptions.UserException;
 import com.cdz.model.User;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,8 +12,22 @@ public interface UserService {
 
     User getUserFromJwtToken(String token) throws UserException;
 
+    /**
+     * The caller's user entity, loaded by id. The request's persistence context
+     * (spring.jpa.open-in-view) is the per-request memo: later calls in the same
+     * request return the same instance without another query.
+     */
     User getCurrentUser() throws UserException;
 
+    /**
+     * Identity of the caller taken from the verified token: user id, store id and role
+     * without a database lookup (falls back to loading the user for older tokens).
+     */
+    TokenPrincipal getCurrentPrincipal() throws UserException;
+
+    /** Store the caller belongs to, or null when none is assigned yet. */
+    Long getCurrentStoreId() throws UserException;
+
     User getUserByEmail(String email) throws UserException;
 
     User getUserById(Long id) throws Exception;
@@ -1,13 +1,18 @@
 package com.cdz.service.impl;
 
-import com.cdz.model.Order;
-import com.cdz.model.OrderItem;
+import com.cdz.model.SalesDailyRollup;
+import com.cdz.model.SalesHourlyRollup;
 import com.cdz.repository.CustomerRepository;
-import com.cdz.repository.OrderRepository;
-import com.cdz.repository.ProductRepository;
+import com.cdz.repository.ProductDailyRollupRepository;
+import com.cdz.repository.SalesDailyRollupRepository;
+import com.cdz.repository.SalesHourlyRollupRepository;
+import com.cdz.repository.SalesRollupSequenceRepository;
 import com.cdz.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,48 +20,44 @@ import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard figures read from the per-store rollup tables maintained by
+ * SalesRollupWriter, so each call costs a few buckets rather than a scan of orders.
+ */
 @Service
 @RequiredArgsConstructor
 public class AnalyticsServiceImpl implements AnalyticsService {
 
-    private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final SalesHourlyRollupRepository hourlyRollupRepository;
+    private final SalesDailyRollupRepository dailyRollupRepository;
+    private final ProductDailyRollupRepository productRollupRepository;
+    private final SalesRollupSequenceRepository sequenceRepository;
     private final CustomerRepository customerRepository;
-    private final com.cdz.repository.OrderItemRepository orderItemRepository;
 
     @Override
     public Map<String, Object> getDashboardSummary(Long storeId) {
-        System.out.println("Fetching Dashboard Summary for Store ID: " + storeId);
         // Today's metrics
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        List<Order> todayOrders = orderRepository.findByStoreIdAndCreatedAtBetween(storeId, startOfDay, endOfDay);
-
-        double todayRevenue = todayOrders.stream()
-                .mapToDouble(o -> o.getTotalAmount() != null ? o.getTotalAmount() : 0)
-                .sum();
-
-        // Total metrics using efficient queries
-        Double totalRevenue = orderRepository.sumTotalAmountByStoreId(storeId);
-        if (totalRevenue == null)
-            totalRevenue = 0.0;
-
-        long totalOrders = orderRepository.countByStoreId(storeId);
+        LocalDate today = LocalDate.now();
+        List<SalesDailyRollup> todayBuckets = dailyRollupRepository.findByStoreIdAndSalesDateBetween(storeId, today,
+                today);
+        double todayRevenue = todayBuckets.stream().mapToDouble(SalesDailyRollup::getRevenue).sum();
+        long todayOrders = todayBuckets.stream().mapToLong(SalesDailyRollup::getOrderCount).sum();
+
+        // All-time totals
+        SalesDailyRollupRepository.SalesTotals totals = dailyRollupRepository.sumTotalsByStoreId(storeId);
+        double totalRevenue = totals.getRevenue() != null ? totals.getRevenue() : 0.0;
+        long totalOrders = totals.getOrderCount() != null ? totals.getOrderCount() : 0;
+        long totalProducts = totals.getItemsSold() != null ? totals.getItemsSold() : 0;
 
         // Avg Order Value
         double avgOrderValue = totalOrders > 0 ? totalRevenue / totalOrders : 0;
 
         // Count per store (Fixes global count bug)
         long totalCustomers = customerRepository.countByStoreId(storeId);
-        Long itemsSold = orderItemRepository.sumQuantityByStoreId(storeId);
-        long totalProducts = itemsSold != null ? itemsSold : 0;
-
-        System.out.println("Dashboard Counts for Store " + storeId + " -> Customers: " + totalCustomers + ", Products: "
-                + totalProducts);
 
         Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("todayRevenue", Math.round(todayRevenue * 100.0) / 100.0);
-        summary.put("todayOrders", todayOrders.size());
+        summary.put("todayOrders", todayOrders);
         summary.put("totalRevenue", Math.round(totalRevenue * 100.0) / 100.0);
         summary.put("totalOrders", totalOrders);
         summary.put("avgOrderValue", Math.round(avgOrderValue * 100.0) / 100.0);
@@ -67,20 +68,16 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     @Override
     public List<Map<String, Object>> getRevenueTrend(Long storeId, int days) {
-        LocalDateTime start = LocalDate.now().minusDays(days - 1).atStartOfDay();
-        LocalDateTime end = LocalDate.now().atTime(LocalTime.MAX);
-        List<Order> orders = orderRepository.findByStoreIdAndCreatedAtBetween(storeId, start, end);
+        LocalDate start = LocalDate.now().minusDays(days - 1);
+        LocalDate end = LocalDate.now();
 
-        // Group by date
+        // Group by date (one bucket per payment type per day)
         Map<LocalDate, Double> dailyRevenue = new LinkedHashMap<>();
         for (int i = 0; i < days; i++) {
-            dailyRevenue.put(LocalDate.now().minusDays(days - 1 - i), 0.0);
+            dailyRevenue.put(start.plusDays(i), 0.0);
         }
-        for (Order o : orders) {
-            if (o.getCreatedAt() != null) {
-                LocalDate date = o.getCreatedAt().toLocalDate();
-                dailyRevenue.merge(date, o.getTotalAmount() != null ? o.getTotalAmount() : 0.0, Double::sum);
-            }
+        for (SalesDailyRollup bucket : dailyRollupRepository.findByStoreIdAndSalesDateBetween(storeId, start, end)) {
+            dailyRevenue.merge(bucket.getSalesDate(), bucket.getRevenue(), Double::sum);
         }
 
         List<Map<String, Object>> trend = new ArrayList<>();
@@ -95,40 +92,23 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     @Override
     public List<Map<String, Object>> getTopProducts(Long storeId, int limit, String period) {
-        List<Order> orders;
+        PageRequest top = PageRequest.of(0, Math.max(limit, 1));
+        List<ProductDailyRollupRepository.ProductSales> products;
 
         if ("TODAY".equalsIgnoreCase(period)) {
-            LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-            LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-            orders = orderRepository.findByStoreIdAndCreatedAtBetween(storeId, startOfDay, endOfDay);
+            LocalDate today = LocalDate.now();
+            products = productRollupRepository.findTopProducts(storeId, today, today, top);
         } else {
-            orders = orderRepository.findByStoreId(storeId);
+            products = productRollupRepository.findTopProducts(storeId, top);
         }
 
-        // Count items sold per product
-        Map<String, Long> productCount = new HashMap<>();
-        Map<String, Double> productRevenue = new HashMap<>();
-
-        for (Order order : orders) {
-            if (order.getItems() != null) {
-                for (OrderItem item : order.getItems()) {
-                    String name = item.getProduct() != null ? item.getProduct().getName() : "Unknown";
-                    productCount.merge(name, (long) item.getQuantity(), Long::sum);
-                    double itemTotal = item.getQuantity() * (item.getPrice() != null ? item.getPrice() : 0);
-                    productRevenue.merge(name, itemTotal, Double::sum);
-                }
-            }
-        }
-
-        return productCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(entry -> {
+        return products.stream()
+                .map(sales -> {
                     Map<String, Object> product = new LinkedHashMap<>();
-                    product.put("name", entry.getKey());
-                    product.put("unitsSold", entry.getValue());
+                    product.put("name", sales.getProductName() != null ? sales.getProductName() : "Unknown");
+                    product.put("unitsSold", sales.getUnitsSold());
                     product.put("revenue",
-                            Math.round(productRevenue.getOrDefault(entry.getKey(), 0.0) * 100.0) / 100.0);
+                            Math.round((sales.getRevenue() != null ? sales.getRevenue() : 0.0) * 100.0) / 100.0);
                     return product;
                 })
                 .collect(Collectors.toList());
@@ -136,17 +116,20 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     @Override
     public Map<String, Object> getOrderStats(Long storeId) {
-        List<Order> orders = orderRepository.findByStoreId(storeId);
-
+        long totalOrders = 0;
         // Group by payment type
-        Map<String, Long> byPaymentType = orders.stream()
-                .filter(o -> o.getPaymentType() != null)
-                .collect(Collectors.groupingBy(
-                        o -> o.getPaymentType().name(),
-                        Collectors.counting()));
+        Map<String, Long> byPaymentType = new HashMap<>();
+        for (SalesDailyRollupRepository.PaymentTypeCount count : dailyRollupRepository
+                .countOrdersByPaymentType(storeId)) {
+            long orders = count.getOrderCount() != null ? count.getOrderCount() : 0;
+            totalOrders += orders;
+            if (!SalesDailyRollup.NO_PAYMENT_TYPE.equals(count.getPaymentType()) && orders > 0) {
+                byPaymentType.put(count.getPaymentType(), orders);
+            }
+        }
 
         Map<String, Object> stats = new LinkedHashMap<>();
-        stats.put("totalOrders", orders.size());
+        stats.put("totalOrders", totalOrders);
         stats.put("byPaymentType", byPaymentType);
         return stats;
     }
@@ -155,18 +138,15 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     public List<Map<String, Object>> getHourlySales(Long storeId) {
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
         LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        List<Order> todayOrders = orderRepository.findByStoreIdAndCreatedAtBetween(storeId, startOfDay, endOfDay);
 
         // Initialize all 24 hours
         Map<Integer, Double> hourlySales = new LinkedHashMap<>();
         for (int h = 0; h < 24; h++) {
             hourlySales.put(h, 0.0);
         }
-        for (Order o : todayOrders) {
-            if (o.getCreatedAt() != null) {
-                int hour = o.getCreatedAt().getHour();
-                hourlySales.merge(hour, o.getTotalAmount() != null ? o.getTotalAmount() : 0.0, Double::sum);
-            }
+        for (SalesHourlyRollup bucket : hourlyRollupRepository.findByStoreIdAndBucketStartBetween(storeId, startOfDay,
+                endOfDay)) {
+            hourlySales.merge(bucket.getBucketStart().getHour(), bucket.getRevenue(), Double::sum);
         }
 
         List<Map<String, Object>> result = new ArrayList<>();
@@ -178,4 +158,22 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         });
         return result;
     }
+
+    /**
+     * Everything the live dashboard shows, plus the store's rollup sequence, read
+     * in one repeatable-read transaction so the figures count exactly the sales
+     * numbered up to that sequence.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Map<String, Object> getLiveSnapshot(Long storeId, int topProductsLimit) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("date", LocalDate.now().toString());
+        snapshot.put("sequence", sequenceRepository.findLastSequence(storeId).orElse(0L));
+        snapshot.put("summary", getDashboardSummary(storeId));
+        snapshot.put("hourlySales", getHourlySales(storeId));
+        snapshot.put("orderStats", getOrderStats(storeId));
+        snapshot.put("todayTopProducts", getTopProducts(storeId, topProductsLimit, "TODAY"));
+        return snapshot;
+    }
 }
@@ -13,14 +13,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
@@ -30,7 +29,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
-    private final CustomUserImplementation customUserImplementation;
+    private final PasswordHashingExecutor passwordHashing;
 
     @Override
     public AuthResponse signup(UserDto userDto) throws UserException {
@@ -59,7 +58,7 @@ public class AuthServiceImpl implements AuthService {
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String jwt = jwtProvider.generateToken(authentication);
+        String jwt = jwtProvider.generateToken(savedUser);
 
         AuthResponse authResponse = new AuthResponse();
         authResponse.setJwt(jwt);
@@ -70,42 +69,45 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public AuthResponse login(UserDto userDto) throws UserException {
+    public CompletableFuture<AuthResponse> login(UserDto userDto) throws UserException {
         String email = userDto.getEmail();
         String password = userDto.getPassword();
-        Authentication authentication = authenticate(email, password);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-
-        String role = authorities.iterator().next().getAuthority();
-
-        String jwt = jwtProvider.generateToken(authentication);
 
         User user = userRepository.findByEmail(email);
-
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
-
-        AuthResponse authResponse = new AuthResponse();
-        authResponse.setJwt(jwt);
-        authResponse.setMessage("Login Successfully");
-        authResponse.setUser(UserMapper.toDTO(user));
-
-        return authResponse;
+        if (user == null) {
+            throw new UserException("email id doesn't exist"+ email);
+        }
+        String storedHash = user.getPassword();
+
+        // BCrypt runs on the hashing pool and the rest on the application task executor;
+        // the request thread is released until it completes
+        return passwordHashing.submit(() -> verifyPassword(user.getId(), password, storedHash))
+                .thenApply(verified -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    userRepository.updateLastLogin(user.getId(), now);
+                    user.setLastLogin(now);
+
+                    AuthResponse authResponse = new AuthResponse();
+                    authResponse.setJwt(jwtProvider.generateToken(user));
+                    authResponse.setMessage("Login Successfully");
+                    authResponse.setUser(UserMapper.toDTO(user));
+                    return authResponse;
+                });
     }
 
-    private Authentication authenticate(String email, String password) throws UserException {
-
-        UserDetails userDetails = customUserImplementation.loadUserByUsername(email);
-
-        if(userDetails == null){
-            throw new UserException("email id doesn't exist"+ email);
+    /**
+     * Check the password and, when the stored hash uses a lower work factor than the
+     * configured one, store a fresh hash while the plain password is at hand.
+     */
+    private boolean verifyPassword(Long userId, String password, String storedHash) {
+        if (password == null || storedHash == null || !passwordEncoder.matches(password, storedHash)) {
+            throw new CompletionException(new UserException("password is incorrect"));
         }
-        if(!passwordEncoder.matches(password, userDetails.getPassword())){
-            throw new UserException("password is incorrect");
+        if (passwordEncoder.upgradeEncoding(storedHash)) {
+            if (userRepository.rehashPassword(userId, storedHash, passwordEncoder.encode(password)) > 0) {
+                log.info("Upgraded password hash for user {}", userId);
+            }
         }
-
-        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        return true;
     }
 }
@@ -1,6 +1,8 @@
 package com.cdz.service.impl;
 
+import com.cdz.cache.PaymentStatusCache;
 import com.cdz.service.BillingService;
+import com.cdz.service.PaymentGateway;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
@@ -8,14 +10,21 @@ import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.RefundCreateParams;
 import com.stripe.param.RefundCreateParams.Reason;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class BillingServiceImpl implements BillingService {
 
+    private final PaymentGateway paymentGateway;
+    private final PaymentStatusCache paymentStatusCache;
+
     @Value("${stripe.api.key:}")
     private String stripeApiKey;
 
@@ -52,9 +61,21 @@ public class BillingServiceImpl implements BillingService {
         if (paymentIntentId == null || paymentIntentId.isBlank()) {
             return false;
         }
-        ensureStripeConfigured();
-        PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
-        return "succeeded".equals(intent.getStatus());
+        Optional<String> cached = paymentStatusCache.get(paymentIntentId);
+        if (cached.isPresent()) {
+            return "succeeded".equals(cached.get());
+        }
+        String status = paymentGateway.fetchPaymentIntentStatus(paymentIntentId);
+        paymentStatusCache.record(paymentIntentId, status);
+        return "succeeded".equals(status);
+    }
+
+    @Override
+    public void handleWebhook(String payload, String signatureHeader) {
+        paymentGateway.parseWebhookEvent(payload, signatureHeader).ifPresent(update -> {
+            paymentStatusCache.record(update.paymentIntentId(), update.status());
+            log.info("PaymentIntent {} is now {}", update.paymentIntentId(), update.status());
+        });
     }
 
     @Override
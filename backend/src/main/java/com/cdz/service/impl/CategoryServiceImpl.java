@@ -1,18 +1,22 @@
 package com.cdz.service.impl;
 
+import com.cdz.configuration.TokenPrincipal;
 import com.cdz.domain.UserRole;
+import com.cdz.event.ProductChangedEvent;
 import com.cdz.exceptions.UserException;
 import com.cdz.mapper.CategoryMapper;
 import com.cdz.model.Category;
 import com.cdz.model.Store;
-import com.cdz.model.User;
 import com.cdz.payload.dto.CategoryDTO;
+import com.cdz.repository.CatalogVersionRepository;
 import com.cdz.repository.CategoryRepository;
 import com.cdz.repository.StoreRepository;
 import com.cdz.service.CategoryService;
 import com.cdz.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,14 +26,16 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final StoreRepository storeRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
 
     @Override
     public CategoryDTO createCategory(CategoryDTO dto) throws Exception {
 
-        User user = userService.getCurrentUser();
+        TokenPrincipal user = userService.getCurrentPrincipal();
         Store store = storeRepository.findById(dto.getStoreId()).orElseThrow(
                 () -> new Exception("Store not found")
         );
@@ -54,16 +60,21 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public CategoryDTO updateCategory(Long id, CategoryDTO dto) throws Exception {
         Category category = categoryRepository.findById(id).orElseThrow(
                 ()-> new Exception("category not found")
         );
-        User user = userService.getCurrentUser();
+        TokenPrincipal user = userService.getCurrentPrincipal();
         category.setName(dto.getName());
 
         checkAuthority(user, category.getStore());
 
-        return CategoryMapper.toDTO(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        // Products embed their category, so the store's catalog snapshot is stale
+        Long storeId = category.getStore().getId();
+        eventPublisher.publishEvent(new ProductChangedEvent(storeId, null, catalogVersionRepository.next(storeId)));
+        return CategoryMapper.toDTO(saved);
     }
 
     @Override
@@ -71,16 +82,16 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id).orElseThrow(
                 () -> new Exception("category not found")
         );
-        User user = userService.getCurrentUser();
+        TokenPrincipal user = userService.getCurrentPrincipal();
 
         checkAuthority(user, category.getStore());
 
         categoryRepository.delete(category);
     }
 
-    private void checkAuthority(User user, Store store) throws Exception {
-        boolean isOwner = user.getRole() == UserRole.ROLE_OWNER;
-        boolean isSameStore = store.getStoreAdmin() != null && user.getId().equals(store.getStoreAdmin().getId());
+    private void checkAuthority(TokenPrincipal user, Store store) throws Exception {
+        boolean isOwner = user.role() == UserRole.ROLE_OWNER;
+        boolean isSameStore = store.getStoreAdmin() != null && user.userId().equals(store.getStoreAdmin().getId());
         if (!isOwner || !isSameStore) {
             throw new Exception("You don't have permission to manage this category");
         }
@@ -1,23 +1,74 @@
 package com.cdz.service.impl;
 
+import com.cdz.cache.CustomerPhoneCache;
+import com.cdz.cache.CustomerSearchIndex;
+import com.cdz.event.CustomerChangedEvent;
 import com.cdz.model.Customer;
+import com.cdz.payload.dto.CustomerDTO;
+import com.cdz.model.Store;
+import com.cdz.payload.response.CursorPage;
 import com.cdz.repository.CustomerRepository;
 import com.cdz.service.CustomerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerPhoneCache customerPhoneCache;
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Override
     public Customer createCustomer(Customer customer) {
+        customer.setPhoneNormalized(normalizePhone(customer.getPhone()));
+        Long storeId = customer.getStore() != null ? customer.getStore().getId() : null;
+        if (storeId != null && customer.getPhoneNormalized() != null
+                && customerPhoneCache.find(storeId, customer.getPhoneNormalized()).isPresent()) {
+            throw new IllegalStateException("A customer with this phone number already exists");
+        }
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        publishChange(saved);
+        return saved;
+    }
+
+    @Override
+    public Long findOrCreateByPhone(Store store, String phone, String fullName) {
+        String normalized = normalizePhone(phone);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Phone number is required");
+        }
+        Optional<Long> existing = customerPhoneCache.find(store.getId(), normalized);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        Customer customer = new Customer();
+        customer.setFullName(fullName != null && !fullName.isBlank() ? fullName : "Guest");
+        customer.setPhone(phone);
+        customer.setPhoneNormalized(normalized);
+        customer.setStore(store);
+        try {
+            Long id = customerRepository.saveAndFlush(customer).getId();
+            customerPhoneCache.put(store.getId(), normalized, id);
+            publishChange(customer);
+            return id;
+        } catch (DataIntegrityViolationException e) {
+            // Another till created the same customer first
+            return customerRepository.findIdByStoreIdAndPhoneNormalized(store.getId(), normalized)
+                    .orElseThrow(() -> e);
+        }
     }
 
     @Override
@@ -25,10 +76,22 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customerToUpdate = customerRepository.findById(id).orElseThrow(
                 () -> new Exception("Customer not found"));
 
+        Long storeId = customerToUpdate.getStore() != null ? customerToUpdate.getStore().getId() : null;
+        String previousPhone = customerToUpdate.getPhoneNormalized();
+        String phone = normalizePhone(customerDetails.getPhone());
+        if (storeId != null && phone != null && !phone.equals(previousPhone)
+                && customerPhoneCache.find(storeId, phone).isPresent()) {
+            throw new IllegalStateException("A customer with this phone number already exists");
+        }
+
         customerToUpdate.setFullName(customerDetails.getFullName());
         customerToUpdate.setEmail(customerDetails.getEmail());
         customerToUpdate.setPhone(customerDetails.getPhone());
-        return customerRepository.save(customerToUpdate);
+        customerToUpdate.setPhoneNormalized(phone);
+        customerPhoneCache.evict(storeId, previousPhone);
+        Customer saved = customerRepository.save(customerToUpdate);
+        publishChange(saved);
+        return saved;
     }
 
     @Override
@@ -37,6 +100,10 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customerToUpdate = customerRepository.findById(id).orElseThrow(
                 () -> new Exception("Customer not found"));
         customerRepository.delete(customerToUpdate);
+        if (customerToUpdate.getStore() != null) {
+            customerPhoneCache.evict(customerToUpdate.getStore().getId(), customerToUpdate.getPhoneNormalized());
+        }
+        publishChange(customerToUpdate);
     }
 
     @Override
@@ -45,18 +112,52 @@ public class CustomerServiceImpl implements CustomerService {
                 () -> new Exception("Customer not found"));
     }
 
-    @Override
-    public List<Customer> getAllCustomers() throws Exception {
-        return customerRepository.findAll();
-    }
-
     @Override
     public List<Customer> getCustomersByStoreId(Long storeId) {
         return customerRepository.findByStoreId(storeId);
     }
 
     @Override
-    public List<Customer> searchCustomer(String keyword) throws Exception {
-        return customerRepository.findByFullNameContainingIgnoreCaseOrEmailContainingIgnoreCase(keyword, keyword);
+    public CursorPage<CustomerDTO> searchCustomers(Long storeId, String query, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<CustomerDTO> matches = customerSearchIndex.search(storeId, query);
+        int end = Math.min(offset + pageSize, matches.size());
+        List<CustomerDTO> items = offset < end ? List.copyOf(matches.subList(offset, end)) : List.of();
+        boolean hasMore = end < matches.size();
+        return CursorPage.<CustomerDTO>builder()
+                .items(items)
+                .nextCursor(hasMore ? String.valueOf(end) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void publishChange(Customer customer) {
+        if (customer.getStore() != null) {
+            eventPublisher.publishEvent(new CustomerChangedEvent(customer.getStore().getId(), customer.getId()));
+        }
+    }
+
+    /** Blank stays null; anything else must be a plausible number. */
+    private String normalizePhone(String phone) {
+        if (phone == null || phone.isBlank()) {
+            return null;
+        }
+        String normalized = phoneNumberNormalizer.normalize(phone);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Invalid phone number: " + phone);
+        }
+        return normalized;
     }
 }
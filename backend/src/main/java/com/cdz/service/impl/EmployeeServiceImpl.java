@@ -1,5 +1,7 @@
 package com.cdz.service.impl;
 
+import com.cdz.cache.PrincipalCache;
+import com.cdz.cache.TokenVersionCache;
 import com.cdz.domain.UserRole;
 import com.cdz.mapper.UserMapper;
 import com.cdz.model.Store;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +26,8 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final StoreRepository storeRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenVersionCache tokenVersionCache;
 
     @Override
     public UserDto createStoreEmployee(UserDto employee, Long storeId) throws Exception {
@@ -42,6 +47,9 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         User existingEmployee = userRepository.findById(employeeId)
                 .orElseThrow(() -> new Exception("Employee not existed.."));
+        String previousEmail = existingEmployee.getEmail();
+        UserRole previousRole = existingEmployee.getRole();
+        Long previousStoreId = existingEmployee.getStore() != null ? existingEmployee.getStore().getId() : null;
 
         // Update simple fields
         if (employeeDetails.getEmail() != null) {
@@ -69,7 +77,17 @@ public class EmployeeServiceImpl implements EmployeeService {
             existingEmployee.setStore(store);
         }
 
+        // Tokens issued before a role, store or email change must not keep the old scope
+        Long storeId = existingEmployee.getStore() != null ? existingEmployee.getStore().getId() : null;
+        if (!Objects.equals(previousEmail, existingEmployee.getEmail())
+                || previousRole != existingEmployee.getRole()
+                || !Objects.equals(previousStoreId, storeId)) {
+            tokenVersionCache.bump(existingEmployee);
+        }
+
         User saved = userRepository.save(existingEmployee);
+        principalCache.invalidate(previousEmail);
+        principalCache.invalidate(saved.getEmail());
         return UserMapper.toDTO(saved); // return shallow DTO
     }
 
@@ -80,6 +98,8 @@ public class EmployeeServiceImpl implements EmployeeService {
         );
 
         userRepository.delete(employee);
+        principalCache.invalidate(employee.getEmail());
+        tokenVersionCache.evict(employee.getId());
 
     }
 
@@ -1,5 +1,6 @@
 package com.cdz.service.impl;
 
+import com.cdz.event.InventoryChangedEvent;
 import com.cdz.mapper.InventoryMapper;
 import com.cdz.model.Inventory;
 import com.cdz.model.Product;
@@ -10,6 +11,7 @@ import com.cdz.repository.ProductRepository;
 import com.cdz.repository.StoreRepository;
 import com.cdz.service.InventoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,6 +24,8 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryRepository inventoryRepository;
     private final StoreRepository storeRepository;
     private final ProductRepository productRepository;
+    private final InventoryUpdateExecutor inventoryUpdateExecutor;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public InventoryDTO createInventory(InventoryDTO inventoryDTO) throws Exception {
@@ -33,17 +37,19 @@ public class InventoryServiceImpl implements InventoryService {
 
         Inventory inventory = InventoryMapper.toEntity(inventoryDTO, store, product);
         Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new InventoryChangedEvent(store.getId(), List.of(product.getId())));
         return InventoryMapper.toDTO(savedInventory);
     }
 
     @Override
     public InventoryDTO updateInventory(Long id, InventoryDTO inventoryDTO) throws Exception {
 
-        Inventory inventory = inventoryRepository.findById(id).orElseThrow(
-                () -> new Exception("Inventory not found..."));
-
-        inventory.setQuantity(inventoryDTO.getQuantity());
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        if (inventoryDTO.getVersion() == null) {
+            throw new IllegalArgumentException("Inventory version is required to update the quantity");
+        }
+        // An absolute quantity from the client must not overwrite sales made since it was read
+        Inventory updatedInventory = inventoryUpdateExecutor.updateAtVersion(id, inventoryDTO.getVersion(),
+                "update", inventory -> inventory.setQuantity(inventoryDTO.getQuantity()));
         return InventoryMapper.toDTO(updatedInventory);
     }
 
@@ -53,6 +59,10 @@ public class InventoryServiceImpl implements InventoryService {
         Inventory inventory = inventoryRepository.findById(id).orElseThrow(
                 () -> new Exception("Inventory not found..."));
         inventoryRepository.delete(inventory);
+        if (inventory.getStore() != null && inventory.getProduct() != null) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(inventory.getStore().getId(),
+                    List.of(inventory.getProduct().getId())));
+        }
 
     }
 
@@ -87,19 +97,15 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public InventoryDTO updateLowStockThreshold(Long id, Integer threshold) throws Exception {
-        Inventory inventory = inventoryRepository.findById(id).orElseThrow(
-                () -> new Exception("Inventory not found"));
-        inventory.setLowStockThreshold(threshold);
-        Inventory updated = inventoryRepository.save(inventory);
+        Inventory updated = inventoryUpdateExecutor.update(id, "threshold",
+                inventory -> inventory.setLowStockThreshold(threshold));
         return InventoryMapper.toDTO(updated);
     }
 
     @Override
     public InventoryDTO addStock(Long id, Integer quantity) throws Exception {
-        Inventory inventory = inventoryRepository.findById(id).orElseThrow(
-                () -> new Exception("Inventory not found"));
-        inventory.setQuantity(inventory.getQuantity() + quantity);
-        Inventory updated = inventoryRepository.save(inventory);
+        Inventory updated = inventoryUpdateExecutor.update(id, "add-stock",
+                inventory -> inventory.setQuantity(inventory.getQuantity() + quantity));
         return InventoryMapper.toDTO(updated);
     }
 }
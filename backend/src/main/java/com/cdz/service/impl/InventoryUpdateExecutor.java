@@ -0,0 +1,126 @@
+package com.cdz.service.impl;
+
+import com.cdz.event.InventoryChangedEvent;
+import com.cdz.model.Inventory;
+import com.cdz.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs a read-modify-write on one {@link Inventory} row under its {@code @Version} check.
+ * For changes computed from the current row (adding stock, the threshold), a version conflict
+ * re-reads the row and re-applies the change, with exponential backoff, up to a bounded number
+ * of attempts. Values the client computed from an earlier read go through
+ * {@link #updateAtVersion} and are never retried. Conflicts and retries are counted per store and SKU.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryUpdateExecutor {
+
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inventory.retry.backoff-ms:25}")
+    private long backoffMs;
+
+    public Inventory update(Long inventoryId, String operation, Consumer<Inventory> mutation) {
+        for (int attempt = 1;; attempt++) {
+            AtomicReference<Inventory> loaded = new AtomicReference<>();
+            try {
+                return apply(inventoryId, null, mutation, loaded);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                count("inventory.version.conflicts", operation, loaded.get());
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up {} on inventory {} after {} attempts", operation, inventoryId, attempt);
+                    throw e;
+                }
+                count("inventory.version.retries", operation, loaded.get());
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Applies the change only if the row is still at {@code expectedVersion}, the version the
+     * client read. A stale version or a concurrent write fails with
+     * {@link ObjectOptimisticLockingFailureException} (409) instead of overwriting the other writer.
+     */
+    public Inventory updateAtVersion(Long inventoryId, long expectedVersion, String operation,
+            Consumer<Inventory> mutation) {
+        AtomicReference<Inventory> loaded = new AtomicReference<>();
+        try {
+            return apply(inventoryId, expectedVersion, mutation, loaded);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            count("inventory.version.conflicts", operation, loaded.get());
+            throw e;
+        }
+    }
+
+    private Inventory apply(Long inventoryId, Long expectedVersion, Consumer<Inventory> mutation,
+            AtomicReference<Inventory> loaded) {
+        return transactionTemplate.execute(status -> {
+            Inventory inventory = inventoryRepository.findById(inventoryId).orElseThrow(
+                    () -> new EntityNotFoundException("Inventory not found"));
+            loaded.set(inventory);
+            if (expectedVersion != null && !expectedVersion.equals(inventory.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Inventory.class, inventoryId);
+            }
+            mutation.accept(inventory);
+            Inventory saved = inventoryRepository.saveAndFlush(inventory);
+            publishChange(saved);
+            return saved;
+        });
+    }
+
+    private void publishChange(Inventory inventory) {
+        if (inventory.getStore() != null && inventory.getProduct() != null) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(inventory.getStore().getId(),
+                    List.of(inventory.getProduct().getId())));
+        }
+    }
+
+    private void count(String name, String operation, Inventory inventory) {
+        String store = inventory != null && inventory.getStore() != null
+                ? String.valueOf(inventory.getStore().getId())
+                : "unknown";
+        String sku = inventory != null && inventory.getProduct() != null
+                ? inventory.getProduct().getSku()
+                : "unknown";
+
+        Counter.builder(name)
+                .tag("operation", operation)
+                .tag("store", store)
+                .tag("sku", sku)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void backoff(int attempt) {
+        long delay = backoffMs * (1L << (attempt - 1));
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying inventory update", ie);
+        }
+    }
+}
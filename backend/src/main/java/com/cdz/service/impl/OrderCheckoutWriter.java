@@ -0,0 +1,162 @@
+package com.cdz.service.impl;
+
+import com.cdz.domain.OrderStatus;
+import com.cdz.domain.PaymentType;
+import com.cdz.event.InventoryChangedEvent;
+import com.cdz.model.*;
+import com.cdz.payload.dto.OrderDTO;
+import com.cdz.payload.dto.OrderItemDTO;
+import com.cdz.repository.CustomerRepository;
+import com.cdz.repository.InventoryRepository;
+import com.cdz.repository.InventoryStockOperations;
+import com.cdz.repository.OrderRepository;
+import com.cdz.repository.ProductRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional part of checkout: customer linking, pricing, stock deduction
+ * and the order insert. Kept apart from {@link OrderServiceImpl} so the caller
+ * can react to the outcome of the commit (e.g. an idempotency key collision).
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderCheckoutWriter {
+
+        private final OrderRepository orderRepository;
+        private final ProductRepository productRepository;
+        private final InventoryRepository inventoryRepository;
+        private final CustomerRepository customerRepository;
+        private final SalesRollupWriter salesRollupWriter;
+        private final ApplicationEventPublisher eventPublisher;
+
+        @Transactional(rollbackFor = Exception.class)
+        public Order placeOrder(OrderDTO orderDTO, User cashier, Store store, String idempotencyKey,
+                        Long customerId) throws Exception {
+
+                Customer customer = null;
+                if (customerId != null) {
+                        // Resolved by phone before the transaction; a reference is enough for the FK
+                        customer = customerRepository.getReferenceById(customerId);
+                } else if (orderDTO.getCustomer() != null) {
+                        customer = orderDTO.getCustomer();
+                }
+
+                Order order = Order.builder()
+                                .store(store)
+                                .cashier(cashier)
+                                .customer(customer)
+                                .paymentType(orderDTO.getPaymentType())
+                                .status(OrderStatus.COMPLETED)
+                                .idempotencyKey(idempotencyKey)
+                                .build();
+
+                // Load every product and inventory row of the basket in one query each
+                Set<Long> productIds = orderDTO.getItems().stream()
+                                .map(OrderItemDTO::getProductId)
+                                .collect(Collectors.toSet());
+
+                Map<Long, Product> productsById = productRepository.findAllById(productIds).stream()
+                                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+                Map<Long, Inventory> inventoryByProductId = inventoryRepository
+                                .findByStoreIdAndProductIdIn(store.getId(), productIds).stream()
+                                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Function.identity(),
+                                                (first, second) -> first));
+
+                List<OrderItem> orderItems = orderDTO.getItems().stream().map(
+                                itemDto -> {
+                                        Product product = productsById.get(itemDto.getProductId());
+                                        if (product == null) {
+                                                throw new EntityNotFoundException("product not found");
+                                        }
+
+                                        // Calculate discount
+                                        double originalPrice = product.getSellingPrice();
+                                        double discountPercentage = product.getDiscountPercentage() != null
+                                                        ? product.getDiscountPercentage()
+                                                        : 0.0;
+                                        double discountAmount = (originalPrice * discountPercentage) / 100.0;
+                                        double discountedPrice = originalPrice - discountAmount;
+
+                                        double itemTotal = discountedPrice * itemDto.getQuantity();
+                                        double itemDiscountTotal = discountAmount * itemDto.getQuantity();
+
+                                        return OrderItem.builder()
+                                                        .product(product)
+                                                        .quantity(itemDto.getQuantity())
+                                                        .price(itemTotal)
+                                                        .originalPrice(originalPrice * itemDto.getQuantity())
+                                                        .discountApplied(itemDiscountTotal)
+                                                        .order(order)
+                                                        .build();
+                                }).toList();
+
+                // Calculate subtotal (before discount), total discount, and final total
+                double subtotal = orderItems.stream().mapToDouble(OrderItem::getOriginalPrice).sum();
+                double totalDiscount = orderItems.stream().mapToDouble(OrderItem::getDiscountApplied).sum();
+                double total = orderItems.stream().mapToDouble(OrderItem::getPrice).sum();
+
+                order.setSubtotal(subtotal);
+                order.setTotalDiscount(totalDiscount);
+                order.setTotalAmount(total);
+                order.setItems(orderItems);
+
+                // Card payment was verified by the caller before this transaction opened
+                if (orderDTO.getPaymentType() == PaymentType.CARD && orderDTO.getStripePaymentIntentId() != null
+                                && !orderDTO.getStripePaymentIntentId().isBlank()) {
+                        order.setStripePaymentIntentId(orderDTO.getStripePaymentIntentId());
+                }
+
+                // Validate inventory BEFORE saving order
+                Map<Long, Integer> requestedByProductId = new LinkedHashMap<>();
+                Map<Long, Product> orderedProducts = new LinkedHashMap<>();
+                for (OrderItem item : orderItems) {
+                        Long productId = item.getProduct().getId();
+                        Inventory inventory = inventoryByProductId.get(productId);
+
+                        if (inventory == null) {
+                                throw new Exception("Product '" + item.getProduct().getName() +
+                                                "' is not available in inventory");
+                        }
+
+                        int requested = requestedByProductId.merge(productId, item.getQuantity(), Integer::sum);
+                        orderedProducts.put(productId, item.getProduct());
+
+                        // Fail fast on the stock we just read; the guarded decrement below is authoritative
+                        if (inventory.getQuantity() < requested) {
+                                throw new Exception("Insufficient stock for '" + item.getProduct().getName() +
+                                                "'. Available: " + inventory.getQuantity() +
+                                                ", Requested: " + requested);
+                        }
+                }
+
+                // Deduct inventory atomically; another terminal may have sold the same units meanwhile
+                InventoryStockOperations.StockMutationResult deduction = inventoryRepository
+                                .decrementAll(store.getId(), requestedByProductId);
+                if (!deduction.applied()) {
+                        Long productId = deduction.rejectedProductId();
+                        Integer available = inventoryRepository.findQuantityByProductIdAndStoreId(productId,
+                                        store.getId());
+                        throw new Exception("Insufficient stock for '" + orderedProducts.get(productId).getName() +
+                                        "'. Available: " + (available != null ? available : 0) +
+                                        ", Requested: " + requestedByProductId.get(productId));
+                }
+
+                eventPublisher.publishEvent(new InventoryChangedEvent(store.getId(), requestedByProductId.keySet()));
+
+                Order savedOrder = orderRepository.save(order);
+                salesRollupWriter.recordOrder(savedOrder);
+                return savedOrder;
+        }
+}
@@ -2,191 +2,178 @@ package com.cdz.service.impl;
 
 import com.cdz.domain.OrderStatus;
 import com.cdz.domain.PaymentType;
+import com.cdz.cache.OrderIdempotencyIndex;
+import com.cdz.event.ShiftActivityEvent;
 import com.cdz.mapper.OrderMapper;
 import com.cdz.model.*;
 import com.cdz.payload.dto.OrderDTO;
 import com.cdz.payload.dto.ReceiptDTO;
-import com.cdz.repository.InventoryRepository;
+import com.cdz.payload.response.CursorPage;
 import com.cdz.repository.OrderRepository;
 import com.cdz.repository.ProductRepository;
 import com.cdz.service.BillingService;
+import com.cdz.service.CustomerService;
 import com.cdz.service.OrderService;
 import com.cdz.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+        private static final int MAX_PAGE_SIZE = 100;
+
         private final OrderRepository orderRepository;
         private final UserService userService;
         private final ProductRepository productRepository;
-        private final InventoryRepository inventoryRepository;
+        private final OrderCheckoutWriter orderCheckoutWriter;
+        private final OrderIdempotencyIndex idempotencyIndex;
         private final BillingService billingService;
-        private final com.cdz.service.CustomerService customerService;
+        private final CustomerService customerService;
+        private final SalesRollupWriter salesRollupWriter;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Override
-        @Transactional
         public OrderDTO createOrder(OrderDTO orderDTO) throws Exception {
 
-                User cashier = userService.getCurrentUser();
-
-                Store store = cashier.getStore();
-                if (store == null) {
+                // Store scope comes from the token, so a replayed checkout never loads the user
+                Long storeId = userService.getCurrentStoreId();
+                if (storeId == null) {
                         throw new Exception("User's store not found");
                 }
-                System.out.println("Creating order for store: " + store.getId() + " - " + store.getBrand());
-
-                Customer customer = null;
-                if (orderDTO.getCustomerId() != null) {
-                        // Use existing logic if ID is provided (e.g., from search)
-                        // ... fetch customer by ID ...
-                        // For now, let's assume the frontend might still send the full object or ID
-                        // But we prioritize the new flow if name/phone are sent without ID
-                }
 
-                // New Flow: Auto-create or Link by Phone
-                if (orderDTO.getCustomerPhone() != null && !orderDTO.getCustomerPhone().isEmpty()) {
-                        List<Customer> existing = customerService.searchCustomer(orderDTO.getCustomerPhone()); // Assuming
-                                                                                                               // searchCustomer
-                                                                                                               // uses
-                                                                                                               // phone
-                                                                                                               // too,
-                                                                                                               // or we
-                                                                                                               // use
-                                                                                                               // repository
-                                                                                                               // directly
-                        if (!existing.isEmpty()) {
-                                customer = existing.get(0);
-                        } else {
-                                // Create new
-                                customer = new Customer();
-                                customer.setFullName(orderDTO.getCustomerName() != null ? orderDTO.getCustomerName()
-                                                : "Guest");
-                                customer.setPhone(orderDTO.getCustomerPhone());
-                                customer.setStore(store);
-                                customer = customerService.createCustomer(customer); // Reuse service to save
+                String idempotencyKey = orderDTO.getIdempotencyKey();
+                if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                        if (idempotencyKey.length() > 64) {
+                                throw new IllegalArgumentException("Idempotency-Key must be at most 64 characters");
                         }
-                } else if (orderDTO.getCustomer() != null) {
-                        customer = orderDTO.getCustomer();
+                        // Replay: the original order is returned without pricing, stock or payment checks
+                        Optional<Long> existingOrderId = idempotencyIndex.findOrderId(storeId, idempotencyKey);
+                        if (existingOrderId.isPresent()) {
+                                return getOrderById(existingOrderId.get());
+                        }
+                } else {
+                        idempotencyKey = null;
                 }
 
-                Order order = Order.builder()
-                                .store(store)
-                                .cashier(cashier)
-                                .customer(customer)
-                                .paymentType(orderDTO.getPaymentType())
-                                .build();
-
-                List<OrderItem> orderItems = orderDTO.getItems().stream().map(
-                                itemDto -> {
-                                        Product product = productRepository.findById(itemDto.getProductId())
-                                                        .orElseThrow(() -> new EntityNotFoundException(
-                                                                        "product not found"));
-
-                                        // Calculate discount
-                                        double originalPrice = product.getSellingPrice();
-                                        double discountPercentage = product.getDiscountPercentage() != null
-                                                        ? product.getDiscountPercentage()
-                                                        : 0.0;
-                                        double discountAmount = (originalPrice * discountPercentage) / 100.0;
-                                        double discountedPrice = originalPrice - discountAmount;
-
-                                        double itemTotal = discountedPrice * itemDto.getQuantity();
-                                        double itemDiscountTotal = discountAmount * itemDto.getQuantity();
-
-                                        return OrderItem.builder()
-                                                        .product(product)
-                                                        .quantity(itemDto.getQuantity())
-                                                        .price(itemTotal)
-                                                        .originalPrice(originalPrice * itemDto.getQuantity())
-                                                        .discountApplied(itemDiscountTotal)
-                                                        .order(order)
-                                                        .build();
-                                }).toList();
-
-                // Calculate subtotal (before discount), total discount, and final total
-                double subtotal = orderItems.stream().mapToDouble(OrderItem::getOriginalPrice).sum();
-                double totalDiscount = orderItems.stream().mapToDouble(OrderItem::getDiscountApplied).sum();
-                double total = orderItems.stream().mapToDouble(OrderItem::getPrice).sum();
-
-                order.setSubtotal(subtotal);
-                order.setTotalDiscount(totalDiscount);
-                order.setTotalAmount(total);
-                order.setItems(orderItems);
+                User cashier = userService.getCurrentUser();
+                Store store = cashier.getStore();
+                if (store == null) {
+                        throw new Exception("User's store not found");
+                }
+                System.out.println("Creating order for store: " + store.getId() + " - " + store.getBrand());
 
-                // Card payment: verify Stripe PaymentIntent succeeded before saving
+                // Card payment: verify the Stripe PaymentIntent before any transaction or row lock is taken
                 if (orderDTO.getPaymentType() == PaymentType.CARD && orderDTO.getStripePaymentIntentId() != null
                                 && !orderDTO.getStripePaymentIntentId().isBlank()) {
                         if (!billingService.verifyPaymentSucceeded(orderDTO.getStripePaymentIntentId())) {
                                 throw new Exception("Card payment not confirmed. Complete payment with Stripe first.");
                         }
-                        order.setStripePaymentIntentId(orderDTO.getStripePaymentIntentId());
                 }
 
-                // Validate and deduct inventory BEFORE saving order
-                for (OrderItem item : orderItems) {
-                        Inventory inventory = inventoryRepository.findByProductIdAndStoreId(
-                                        item.getProduct().getId(),
-                                        store.getId());
-
-                        if (inventory == null) {
-                                throw new Exception("Product '" + item.getProduct().getName() +
-                                                "' is not available in inventory");
-                        }
+                // Indexed find-or-create in its own short transaction, so a concurrent first
+                // visit of the same customer cannot fail the order on the unique phone key
+                Long customerId = null;
+                if (orderDTO.getCustomerPhone() != null && !orderDTO.getCustomerPhone().isBlank()) {
+                        customerId = customerService.findOrCreateByPhone(store, orderDTO.getCustomerPhone(),
+                                        orderDTO.getCustomerName());
+                }
 
-                        // Check if sufficient stock is available
-                        if (inventory.getQuantity() < item.getQuantity()) {
-                                throw new Exception("Insufficient stock for '" + item.getProduct().getName() +
-                                                "'. Available: " + inventory.getQuantity() +
-                                                ", Requested: " + item.getQuantity());
+                Order savedOrder;
+                try {
+                        savedOrder = orderCheckoutWriter.placeOrder(orderDTO, cashier, store, idempotencyKey,
+                                        customerId);
+                } catch (DataIntegrityViolationException e) {
+                        // A concurrent retry with the same key committed first
+                        if (idempotencyKey != null) {
+                                Optional<Long> winner = idempotencyIndex.findOrderId(store.getId(), idempotencyKey);
+                                if (winner.isPresent()) {
+                                        return getOrderById(winner.get());
+                                }
                         }
-
-                        // Deduct inventory
-                        inventory.setQuantity(inventory.getQuantity() - item.getQuantity());
-                        inventoryRepository.save(inventory);
+                        throw e;
                 }
 
-                Order savedOrder = orderRepository.save(order);
-
-                return OrderMapper.toDTO(savedOrder);
+                if (idempotencyKey != null) {
+                        idempotencyIndex.register(store.getId(), idempotencyKey, savedOrder.getId());
+                }
+                OrderDTO placed = OrderMapper.toDTO(savedOrder);
+                eventPublisher.publishEvent(new ShiftActivityEvent(cashier.getId(), placed, null));
+                return placed;
         }
 
         @Override
         public OrderDTO getOrderById(Long id) throws Exception {
-                return orderRepository.findById(id)
+                return orderRepository.findDetailById(id)
                                 .map(OrderMapper::toDTO)
                                 .orElseThrow(() -> new EntityNotFoundException("order not found with id" + id));
 
         }
 
         @Override
-        public List<OrderDTO> getOrdersByStore(
+        public CursorPage<OrderDTO> getOrdersByStore(
                         Long storeId,
                         Long customerId,
                         Long cashierId,
                         PaymentType paymentType,
-                        OrderStatus status) throws Exception {
-
-                return orderRepository.findByStoreIdOrderByCreatedAtDesc(storeId).stream()
-                                .filter(order -> customerId == null ||
-                                                (order.getCustomer() != null &&
-                                                                order.getCustomer().getId().equals(customerId)))
-                                .filter(order -> cashierId == null ||
-                                                (order.getCashier() != null &&
-                                                                order.getCashier().getId().equals(cashierId)))
-                                .filter(order -> paymentType == null ||
-                                                order.getPaymentType() == paymentType)
-                                .map(OrderMapper::toDTO)
-                                .collect(Collectors.toList());
+                        OrderStatus status,
+                        String cursor,
+                        int size) throws Exception {
+
+                int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+                OrderCursor after = cursor != null && !cursor.isBlank() ? OrderCursor.decode(cursor) : null;
+
+                // One extra row tells us whether another page exists
+                List<Order> rows = orderRepository.findPageByStore(storeId, customerId, cashierId, paymentType,
+                                status, after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                                PageRequest.of(0, pageSize + 1));
+                boolean hasMore = rows.size() > pageSize;
+                List<Order> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+                String nextCursor = null;
+                if (hasMore) {
+                        Order last = page.get(page.size() - 1);
+                        nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+                }
+
+                return CursorPage.<OrderDTO>builder()
+                                .items(page.stream().map(OrderMapper::toDTO).collect(Collectors.toList()))
+                                .nextCursor(nextCursor)
+                                .hasMore(hasMore)
+                                .build();
+        }
+
+        /** Position after the last order of a page; sent to clients as opaque base64url text. */
+        private record OrderCursor(LocalDateTime createdAt, Long id) {
+
+                String encode() {
+                        return Base64.getUrlEncoder().withoutPadding()
+                                        .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+                }
+
+                static OrderCursor decode(String cursor) {
+                        try {
+                                String[] parts = new String(Base64.getUrlDecoder().decode(cursor),
+                                                StandardCharsets.UTF_8).split("\\|");
+                                return new OrderCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+                        } catch (RuntimeException e) {
+                                throw new IllegalArgumentException("Invalid cursor");
+                        }
+                }
         }
 
         @Override
@@ -198,12 +185,20 @@ public class OrderServiceImpl implements OrderService {
         }
 
         @Override
+        @Transactional
         public void deleteOrder(Long id) throws Exception {
 
                 Order order = orderRepository.findById(id)
                                 .orElseThrow(() -> new EntityNotFoundException("order not found with id" + id));
 
+                salesRollupWriter.reverseOrder(order);
                 orderRepository.delete(order);
+                if (order.getCashier() != null) {
+                        eventPublisher.publishEvent(new ShiftActivityEvent(order.getCashier().getId(), null, null));
+                }
+                if (order.getIdempotencyKey() != null && order.getStore() != null) {
+                        idempotencyIndex.evict(order.getStore().getId(), order.getIdempotencyKey());
+                }
 
         }
 
@@ -236,11 +231,15 @@ public class OrderServiceImpl implements OrderService {
         }
 
         @Override
+        @Transactional
         public OrderDTO updateOrder(Long id, OrderDTO orderDTO) throws Exception {
 
                 Order existing = orderRepository.findById(id)
                                 .orElseThrow(() -> new EntityNotFoundException("order not found with id " + id));
 
+                // Take the order out of the rollups as it was, then record it again as edited
+                salesRollupWriter.reverseOrder(existing);
+
                 if (orderDTO.getPaymentType() != null) {
                         existing.setPaymentType(orderDTO.getPaymentType());
                 }
@@ -281,12 +280,16 @@ public class OrderServiceImpl implements OrderService {
                 }
 
                 Order saved = orderRepository.save(existing);
+                salesRollupWriter.recordOrder(saved);
+                if (saved.getCashier() != null) {
+                        eventPublisher.publishEvent(new ShiftActivityEvent(saved.getCashier().getId(), null, null));
+                }
                 return OrderMapper.toDTO(saved);
         }
 
         @Override
         public ReceiptDTO generateReceipt(Long orderId) throws Exception {
-                Order order = orderRepository.findById(orderId)
+                Order order = orderRepository.findReceiptById(orderId)
                                 .orElseThrow(() -> new EntityNotFoundException("Order not found with id " + orderId));
 
                 // Generate receipt number
@@ -0,0 +1,77 @@
+package com.cdz.service.impl;
+
+import com.cdz.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Small fixed pool for BCrypt work, so a burst of logins (e.g. at shift change)
+ * queues here instead of occupying the servlet request threads checkout needs.
+ * The queue is bounded; when it is full the task is rejected immediately with
+ * {@link ServiceOverloadedException} (HTTP 503) rather than waiting.
+ * <p>
+ * Returned futures complete on the application task executor, so whatever the
+ * caller chains on them (database writes, token signing) never holds a hashing
+ * worker.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Executor completionExecutor;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+            @Qualifier("applicationTaskExecutor") Executor completionExecutor,
+            @Value("${security.password.hashing.threads:2}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.completionExecutor = completionExecutor;
+
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> hashed;
+        try {
+            hashed = CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue full ({} waiting), rejecting request", executor.getQueue().size());
+            throw new ServiceOverloadedException("Too many sign-in attempts right now, please retry shortly");
+        }
+        return hashed.thenApplyAsync(result -> result, completionExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
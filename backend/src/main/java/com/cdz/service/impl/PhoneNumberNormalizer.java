@@ -0,0 +1,87 @@
+package com.cdz.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reduces the ways cashiers type a phone number to one E.164 string
+ * ({@code +<country><number>}), so customers can be matched by equality.
+ * <ul>
+ * <li>{@code +44 20 7946 0958} and {@code 0044 20 7946 0958} keep their country code</li>
+ * <li>{@code 020 7946 0958}: the trunk 0 is dropped and the store's default country code added</li>
+ * <li>up to 10 digits without a prefix: the default country code is added</li>
+ * <li>more than 10 digits without a prefix: assumed to already start with a country code</li>
+ * </ul>
+ * This is deliberately simpler than a full numbering-plan library; it only has to
+ * be consistent, since both stored and searched numbers go through it.
+ */
+@Component
+public class PhoneNumberNormalizer {
+
+    private static final int MAX_NATIONAL_DIGITS = 10;
+
+    private final String defaultCountryCode;
+
+    public PhoneNumberNormalizer(@Value("${customers.phone.default-country-code:1}") String defaultCountryCode) {
+        this.defaultCountryCode = defaultCountryCode.replaceAll("\\D", "");
+    }
+
+    /** @return the E.164 form, or null when {@code raw} is blank or not a plausible number */
+    public String normalize(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String trimmed = raw.trim();
+        String digits = trimmed.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+
+        String international;
+        if (trimmed.startsWith("+")) {
+            international = digits;
+        } else if (digits.startsWith("00")) {
+            international = digits.substring(2);
+        } else if (digits.startsWith("0")) {
+            international = defaultCountryCode + digits.replaceFirst("^0+", "");
+        } else if (digits.length() <= MAX_NATIONAL_DIGITS) {
+            international = defaultCountryCode + digits;
+        } else {
+            international = digits;
+        }
+
+        // E.164: at most 15 digits, country codes never start with 0
+        if (international.length() < 8 || international.length() > 15 || international.charAt(0) == '0') {
+            return null;
+        }
+        return "+" + international;
+    }
+
+    /**
+     * E.164 prefixes a partially typed number could stand for, by the same rules as
+     * {@link #normalize}. Without a {@code +}, {@code 00} or trunk {@code 0} the digits
+     * may be either national or international, so both readings are returned.
+     */
+    public List<String> prefixes(String raw) {
+        if (raw == null) {
+            return List.of();
+        }
+        String trimmed = raw.trim();
+        String digits = trimmed.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return List.of();
+        }
+        if (trimmed.startsWith("+")) {
+            return List.of("+" + digits);
+        }
+        if (digits.startsWith("00")) {
+            return digits.length() > 2 ? List.of("+" + digits.substring(2)) : List.of();
+        }
+        if (digits.startsWith("0")) {
+            return List.of("+" + defaultCountryCode + digits.replaceFirst("^0+", ""));
+        }
+        return List.of("+" + digits, "+" + defaultCountryCode + digits);
+    }
+}
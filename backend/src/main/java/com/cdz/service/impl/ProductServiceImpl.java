@@ -1,17 +1,27 @@
 package com.cdz.service.impl;
 
+import com.cdz.cache.CatalogSnapshotCache;
+import com.cdz.cache.ProductSearchIndex;
+import com.cdz.cache.SkuIndex;
+import com.cdz.event.ProductChangedEvent;
 import com.cdz.mapper.ProductMapper;
 import com.cdz.model.Category;
 import com.cdz.model.Product;
 import com.cdz.model.Store;
 import com.cdz.model.User;
 import com.cdz.payload.dto.ProductDTO;
+import com.cdz.payload.response.CatalogDelta;
+import com.cdz.payload.response.SkuLookupResponse;
+import com.cdz.repository.CatalogVersionRepository;
 import com.cdz.repository.CategoryRepository;
 import com.cdz.repository.ProductRepository;
 import com.cdz.repository.StoreRepository;
 import com.cdz.service.ProductService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,8 +34,14 @@ public class ProductServiceImpl implements ProductService {
         private final ProductRepository productRepository;
         private final StoreRepository storeRepository;
         private final CategoryRepository categoryRepository;
+        private final CatalogVersionRepository catalogVersionRepository;
+        private final CatalogSnapshotCache catalogSnapshots;
+        private final ProductSearchIndex productSearchIndex;
+        private final SkuIndex skuIndex;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Override
+        @Transactional
         public ProductDTO createProduct(ProductDTO productDTO, User user) throws Exception {
                 Store store;
                 if (user.getStore() != null) {
@@ -40,10 +56,12 @@ public class ProductServiceImpl implements ProductService {
 
                 Product product = ProductMapper.toEntity(productDTO, store, category);
                 Product savedProduct = productRepository.save(product);
+                publishChange(savedProduct);
                 return ProductMapper.toDTO(savedProduct);
         }
 
         @Override
+        @Transactional
         public ProductDTO updateProduct(Long id, ProductDTO productDTO, User user) throws Exception {
                 Product product = productRepository.findById(id).orElseThrow(
                                 () -> new Exception("product not found"));
@@ -64,15 +82,18 @@ public class ProductServiceImpl implements ProductService {
                 }
 
                 Product savedProduct = productRepository.save(product);
+                publishChange(savedProduct);
                 return ProductMapper.toDTO(savedProduct);
         }
 
         @Override
+        @Transactional
         public void deleteProduct(Long id, User user) throws Exception {
 
                 Product product = productRepository.findById(id).orElseThrow(
                                 () -> new Exception("product not found"));
                 productRepository.delete(product);
+                publishChange(product);
 
         }
 
@@ -86,10 +107,32 @@ public class ProductServiceImpl implements ProductService {
         }
 
         @Override
-        public List<ProductDTO> searchByKeyword(Long storeId, String keyword) {
-                List<Product> products = productRepository.searchByKeyword(storeId, keyword);
-                return products.stream()
-                                .map(ProductMapper::toDTO)
-                                .collect(Collectors.toList());
+        public List<ProductDTO> searchByKeyword(Long storeId, String keyword, Integer limit) {
+                return productSearchIndex.search(storeId, keyword, limit);
+        }
+
+        @Override
+        public CatalogSnapshotCache.Snapshot getCatalogSnapshot(Long storeId) {
+                return catalogSnapshots.snapshot(storeId);
+        }
+
+        @Override
+        public CatalogDelta getCatalogChanges(Long storeId, long sinceVersion) {
+                return catalogSnapshots.changesSince(storeId, sinceVersion);
+        }
+
+        @Override
+        public SkuLookupResponse getBySku(Long storeId, String sku) {
+                return skuIndex.lookup(storeId, sku).orElseThrow(
+                                () -> new EntityNotFoundException("No product with SKU " + sku + " in this store"));
+        }
+
+        /** Bumps the store's catalog version in the caller's transaction. */
+        private void publishChange(Product product) {
+                if (product.getStore() != null) {
+                        Long storeId = product.getStore().getId();
+                        long version = catalogVersionRepository.next(storeId);
+                        eventPublisher.publishEvent(new ProductChangedEvent(storeId, product.getId(), version));
+                }
         }
 }
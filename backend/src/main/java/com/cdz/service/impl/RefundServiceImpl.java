@@ -1,7 +1,8 @@
 package com.cdz.service.impl;
 
+import com.cdz.event.InventoryChangedEvent;
+import com.cdz.event.ShiftActivityEvent;
 import com.cdz.mapper.RefundMapper;
-import com.cdz.model.Inventory;
 import com.cdz.model.Order;
 import com.cdz.model.Refund;
 import com.cdz.model.Store;
@@ -15,10 +16,14 @@ import com.cdz.service.RefundService;
 import com.cdz.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +35,8 @@ public class RefundServiceImpl implements RefundService {
         private final OrderRepository orderRepository;
         private final InventoryRepository inventoryRepository;
         private final BillingService billingService;
+        private final SalesRollupWriter salesRollupWriter;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Override
         public RefundDTO createRefund(RefundDTO refund) throws Exception {
@@ -61,17 +68,13 @@ public class RefundServiceImpl implements RefundService {
                 }
 
                 // ✅ CRITICAL: Restore inventory when refund is processed
+                Map<Long, Integer> returnedByProductId = new HashMap<>();
                 for (var item : order.getItems()) {
-                        Inventory inventory = inventoryRepository.findByProductIdAndStoreId(
-                                        item.getProduct().getId(),
-                                        store.getId());
-
-                        if (inventory != null) {
-                                // Add items back to inventory
-                                inventory.setQuantity(inventory.getQuantity() + item.getQuantity());
-                                inventoryRepository.save(inventory);
-                        }
+                        returnedByProductId.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
                 }
+                // Add items back to inventory with a single guarded update per product
+                inventoryRepository.incrementAll(store.getId(), returnedByProductId);
+                eventPublisher.publishEvent(new InventoryChangedEvent(store.getId(), returnedByProductId.keySet()));
 
                 Refund refunds = Refund.builder()
                                 .order(order)
@@ -83,7 +86,10 @@ public class RefundServiceImpl implements RefundService {
                                 .build();
 
                 Refund saved = refundRepository.save(refunds);
-                return RefundMapper.toDTO(saved);
+                salesRollupWriter.recordRefund(saved);
+                RefundDTO issued = RefundMapper.toDTO(saved);
+                eventPublisher.publishEvent(new ShiftActivityEvent(cashier.getId(), null, issued));
+                return issued;
         }
 
         @Override
@@ -131,9 +137,15 @@ public class RefundServiceImpl implements RefundService {
         }
 
         @Override
+        @Transactional(rollbackFor = Exception.class)
         public void deleteRefund(Long refundId) throws Exception {
 
-                this.getRefundById(refundId);
-                refundRepository.deleteById(refundId);
+                Refund refund = refundRepository.findById(refundId)
+                                .orElseThrow(() -> new Exception("Refund Not Found"));
+                salesRollupWriter.reverseRefund(refund);
+                refundRepository.delete(refund);
+                if (refund.getCashier() != null) {
+                        eventPublisher.publishEvent(new ShiftActivityEvent(refund.getCashier().getId(), null, null));
+                }
         }
 }
@@ -1,14 +1,32 @@
 package com.cdz.service.impl;
 
+import com.cdz.domain.ExportFormat;
 import com.cdz.model.Order;
 import com.cdz.model.OrderItem;
 import com.cdz.payload.dto.DailySalesReportDTO;
 import com.cdz.payload.dto.ItemSalesReportDTO;
 import com.cdz.repository.OrderRepository;
 import com.cdz.service.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +38,12 @@ import java.util.stream.Collectors;
 public class ReportServiceImpl implements ReportService {
 
     private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result
+    @Value("${reports.export.fetch-size:-2147483648}")
+    private int exportFetchSize;
 
     @Override
     public List<DailySalesReportDTO> getDailySalesReport(Long storeId, LocalDate startDate, LocalDate endDate) {
@@ -107,4 +131,141 @@ public class ReportServiceImpl implements ReportService {
                 .sorted((a, b) -> Double.compare(b.getTotalRevenue(), a.getTotalRevenue())) // Highest revenue first
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public void exportDailySales(Long storeId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+            OutputStream out) throws IOException {
+
+        // Read from the day rollups, walking their (store_id, sales_date, payment_type) key in order
+        String sql = "SELECT sales_date, SUM(order_count) AS orders, SUM(revenue) AS revenue "
+                + "FROM sales_daily_rollup WHERE store_id = ? AND sales_date BETWEEN ? AND ? "
+                + "GROUP BY sales_date HAVING SUM(order_count) > 0 ORDER BY sales_date DESC";
+
+        RowWriter writer = rowWriter(format, out, "date", "totalOrders", "totalRevenue", "averageOrderValue");
+        stream(sql, writer, rs -> {
+            int totalOrders = rs.getInt("orders");
+            double totalRevenue = rs.getDouble("revenue");
+            DailySalesReportDTO row = DailySalesReportDTO.builder()
+                    .date(rs.getDate("sales_date").toLocalDate())
+                    .totalOrders(totalOrders)
+                    .totalRevenue(totalRevenue)
+                    .averageOrderValue(totalRevenue / totalOrders)
+                    .build();
+            writer.write(row, new Object[] { row.getDate(), row.getTotalOrders(), row.getTotalRevenue(),
+                    row.getAverageOrderValue() });
+        }, storeId, Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    @Override
+    public void exportItemSales(Long storeId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+            OutputStream out) throws IOException {
+
+        String sql = "SELECT MAX(p.name) AS product_name, MAX(c.name) AS category, SUM(oi.quantity) AS quantity, "
+                + "SUM(oi.price) AS revenue, COUNT(DISTINCT oi.order_id) AS orders "
+                + "FROM order_item oi JOIN orders o ON o.id = oi.order_id "
+                + "JOIN product p ON p.id = oi.product_id LEFT JOIN category c ON c.id = p.category_id "
+                + "WHERE o.store_id = ? AND o.created_at >= ? AND o.created_at < ? "
+                + "GROUP BY oi.product_id ORDER BY revenue DESC";
+
+        RowWriter writer = rowWriter(format, out, "productName", "category", "totalQuantitySold", "totalRevenue",
+                "numberOfOrders");
+        stream(sql, writer, rs -> {
+            ItemSalesReportDTO row = ItemSalesReportDTO.builder()
+                    .productName(rs.getString("product_name"))
+                    .category(rs.getString("category") != null ? rs.getString("category") : "Uncategorized")
+                    .totalQuantitySold(rs.getInt("quantity"))
+                    .totalRevenue(rs.getDouble("revenue"))
+                    .numberOfOrders(rs.getInt("orders"))
+                    .build();
+            writer.write(row, new Object[] { row.getProductName(), row.getCategory(), row.getTotalQuantitySold(),
+                    row.getTotalRevenue(), row.getNumberOfOrders() });
+        }, storeId, Timestamp.valueOf(startDate.atStartOfDay()), Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+    }
+
+    /** Runs {@code sql} on a forward-only, read-only cursor and hands each row to {@code handler}. */
+    private void stream(String sql, RowWriter writer, RowHandler handler, Object... params) throws IOException {
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(exportFetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    handler.handle(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; stop reading and let the container clean up
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private RowWriter rowWriter(ExportFormat format, OutputStream out, String... header) throws IOException {
+        Writer text = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            return new RowWriter(text) {
+                @Override
+                void write(Object row, Object[] columns) throws IOException {
+                    text.write(objectMapper.writeValueAsString(row));
+                    text.write('\n');
+                }
+            };
+        }
+        RowWriter csv = new RowWriter(text) {
+            @Override
+            void write(Object row, Object[] columns) throws IOException {
+                if (columns != null) {
+                    writeCsvLine(text, columns);
+                }
+            }
+        };
+        writeCsvLine(text, header);
+        // Send the header right away so the download starts before the first row is ready
+        text.flush();
+        return csv;
+    }
+
+    private static void writeCsvLine(Writer text, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.write(',');
+            }
+            String value = values[i] != null ? values[i].toString() : "";
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                text.write('"');
+                text.write(value.replace("\"", "\"\""));
+                text.write('"');
+            } else {
+                text.write(value);
+            }
+        }
+        text.write("\r\n");
+    }
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /** One export row; CSV writes {@code columns}, NDJSON serializes {@code row}. */
+    private abstract static class RowWriter {
+        final Writer text;
+
+        RowWriter(Writer text) {
+            this.text = text;
+        }
+
+        abstract void write(Object row, Object[] columns) throws IOException;
+
+        void finish() throws IOException {
+            text.flush();
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.cdz.service.impl;
+
+import com.cdz.event.SalesRecordedEvent;
+import com.cdz.model.Order;
+import com.cdz.model.OrderItem;
+import com.cdz.model.Refund;
+import com.cdz.model.SalesDailyRollup;
+import com.cdz.repository.ProductDailyRollupRepository;
+import com.cdz.repository.SalesDailyRollupRepository;
+import com.cdz.repository.SalesHourlyRollupRepository;
+import com.cdz.repository.SalesRollupSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies order and refund writes to the hourly, daily and product-day rollups.
+ * Joins the caller's transaction, so a rolled-back checkout never reaches the
+ * rollups. Buckets are touched in a fixed order (hour, day, products by id,
+ * then the store's sequence) to keep concurrent checkouts in the same store from
+ * deadlocking. The sequence number goes out with the SalesRecordedEvent so live
+ * readers can tell which sales a snapshot already counts.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupWriter {
+
+    private final SalesHourlyRollupRepository hourlyRollupRepository;
+    private final SalesDailyRollupRepository dailyRollupRepository;
+    private final ProductDailyRollupRepository productRollupRepository;
+    private final SalesRollupSequenceRepository sequenceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void recordOrder(Order order) {
+        applyOrder(order, 1);
+    }
+
+    /** Takes a deleted order back out of the rollups. */
+    @Transactional
+    public void reverseOrder(Order order) {
+        applyOrder(order, -1);
+    }
+
+    @Transactional
+    public void recordRefund(Refund refund) {
+        applyRefund(refund, 1);
+    }
+
+    @Transactional
+    public void reverseRefund(Refund refund) {
+        applyRefund(refund, -1);
+    }
+
+    private void applyOrder(Order order, int sign) {
+        if (order.getStore() == null || order.getCreatedAt() == null) {
+            return;
+        }
+        Long storeId = order.getStore().getId();
+        LocalDateTime createdAt = order.getCreatedAt();
+        double revenue = order.getTotalAmount() != null ? order.getTotalAmount() : 0.0;
+
+        // TreeMap keys give the product lock order
+        Map<Long, Long> unitsByProduct = new TreeMap<>();
+        Map<Long, Double> revenueByProduct = new TreeMap<>();
+        Map<Long, String> nameByProduct = new TreeMap<>();
+        long items = 0;
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+                items += quantity;
+                if (item.getProduct() == null) {
+                    continue;
+                }
+                Long productId = item.getProduct().getId();
+                unitsByProduct.merge(productId, (long) quantity, Long::sum);
+                revenueByProduct.merge(productId, item.getPrice() != null ? item.getPrice() : 0.0, Double::sum);
+                nameByProduct.put(productId, item.getProduct().getName());
+            }
+        }
+
+        hourlyRollupRepository.upsert(storeId, createdAt.truncatedTo(ChronoUnit.HOURS),
+                sign, sign * revenue, sign * items);
+        String paymentType = paymentTypeKey(order.getPaymentType());
+        dailyRollupRepository.upsertSales(storeId, createdAt.toLocalDate(), paymentType,
+                sign, sign * revenue, sign * items);
+        unitsByProduct.forEach((productId, units) -> productRollupRepository.upsert(storeId,
+                createdAt.toLocalDate(), productId, nameByProduct.get(productId),
+                sign * units, sign * revenueByProduct.get(productId)));
+
+        sequenceRepository.increment(storeId);
+        long sequence = sequenceRepository.findLastSequence(storeId).orElseThrow();
+        eventPublisher.publishEvent(new SalesRecordedEvent(storeId, sequence, createdAt, paymentType,
+                sign, sign * revenue, sign * items));
+    }
+
+    private void applyRefund(Refund refund, int sign) {
+        if (refund.getStore() == null || refund.getCreatedAt() == null) {
+            return;
+        }
+        double amount = refund.getAmount() != null ? refund.getAmount() : 0.0;
+        dailyRollupRepository.upsertRefunds(refund.getStore().getId(), refund.getCreatedAt().toLocalDate(),
+                paymentTypeKey(refund.getPaymentType()), sign, sign * amount);
+    }
+
+    private static String paymentTypeKey(Enum<?> paymentType) {
+        return paymentType != null ? paymentType.name() : SalesDailyRollup.NO_PAYMENT_TYPE;
+    }
+}
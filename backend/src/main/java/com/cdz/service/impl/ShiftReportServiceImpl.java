@@ -1,17 +1,19 @@
 package com.cdz.service.impl;
 
+import com.cdz.cache.ActiveShiftTotals;
 import com.cdz.domain.PaymentType;
 import com.cdz.exceptions.UserException;
 import com.cdz.mapper.ShiftReportMapper;
-import com.cdz.model.Order;
-import com.cdz.model.OrderItem;
 import com.cdz.model.PaymentSummary;
-import com.cdz.model.Product;
-import com.cdz.model.Refund;
+import com.cdz.model.ShiftOrderSummary;
+import com.cdz.model.ShiftProductSale;
 import com.cdz.model.ShiftReport;
 import com.cdz.model.Store;
 import com.cdz.model.User;
 import com.cdz.payload.dto.ShiftReportDTO;
+import com.cdz.payload.dto.ShiftReportSummaryDTO;
+import com.cdz.payload.response.CursorPage;
+import com.cdz.repository.OrderItemRepository;
 import com.cdz.repository.OrderRepository;
 import com.cdz.repository.RefundRepository;
 import com.cdz.repository.ShiftReportRepository;
@@ -19,8 +21,10 @@ import com.cdz.repository.UserRepository;
 import com.cdz.service.ShiftReportService;
 import com.cdz.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,11 +36,15 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ShiftReportServiceImpl implements ShiftReportService {
 
+        private static final int MAX_PAGE_SIZE = 100;
+
         private final ShiftReportRepository shiftReportRepository;
         private final UserService userService;
         private final OrderRepository orderRepository;
+        private final OrderItemRepository orderItemRepository;
         private final RefundRepository refundRepository;
         private final UserRepository userRepository;
+        private final ActiveShiftTotals activeShiftTotals;
 
         @Override
         public ShiftReportDTO startShift() throws Exception {
@@ -64,6 +72,7 @@ public class ShiftReportServiceImpl implements ShiftReportService {
                                 .build();
 
                 ShiftReport savedReport = shiftReportRepository.save(shiftReport);
+                activeShiftTotals.evict(currentUser.getId());
 
                 return ShiftReportMapper.toDTO(savedReport);
         }
@@ -80,21 +89,20 @@ public class ShiftReportServiceImpl implements ShiftReportService {
                 shiftReport.setShiftEnd(shiftEnd);
                 System.out.println("Ending Shift: " + shiftReport.getId() + " - End Time: " + shiftEnd);
 
-                List<Refund> refunds = refundRepository.findByCashierIdAndCreatedAtBetween(
-                                currentUser.getId(),
-                                shiftReport.getShiftStart(), shiftReport.getShiftEnd());
+                // Close-out is a handful of aggregate queries, however many orders the shift had
+                Long cashierId = currentUser.getId();
+                LocalDateTime from = shiftReport.getShiftStart();
 
-                double totalRefunds = refunds.stream()
-                                .mapToDouble(refund -> refund.getAmount() != null ? refund.getAmount() : 0.0).sum();
+                List<OrderRepository.PaymentTotals> paymentTotals = orderRepository
+                                .sumByPaymentTypeForCashier(cashierId, from, shiftEnd);
 
-                List<Order> orders = orderRepository.findByCashierAndCreatedAtBetween(
-                                currentUser,
-                                shiftReport.getShiftStart(), shiftReport.getShiftEnd());
+                double totalSales = paymentTotals.stream()
+                                .mapToDouble(OrderRepository.PaymentTotals::getAmount).sum();
 
-                double totalSales = orders.stream()
-                                .mapToDouble(Order::getTotalAmount).sum();
+                int totalOrders = (int) paymentTotals.stream()
+                                .mapToLong(OrderRepository.PaymentTotals::getOrders).sum();
 
-                int totalOrders = orders.size();
+                double totalRefunds = refundRepository.sumAmountForCashier(cashierId, from, shiftEnd);
 
                 double netSales = totalSales - totalRefunds;
 
@@ -102,12 +110,14 @@ public class ShiftReportServiceImpl implements ShiftReportService {
                 shiftReport.setTotalSales(totalSales);
                 shiftReport.setTotalOrders(totalOrders);
                 shiftReport.setNetSales(netSales);
-                shiftReport.setRecentOrders(getRecentOrders(orders));
-                shiftReport.setTopSellingProducts(getTopSellingProducts(orders));
-                shiftReport.setPaymentSummaries(getPaymentSummaries(orders, totalSales));
-                shiftReport.setRefunds(refunds);
+                shiftReport.setRecentOrders(getRecentOrders(cashierId, from, shiftEnd));
+                shiftReport.setTopSellingProducts(getTopSellingProducts(cashierId, from, shiftEnd));
+                shiftReport.setPaymentSummaries(getPaymentSummaries(paymentTotals, totalSales));
+
+                refundRepository.attachToShift(shiftReport, cashierId, from, shiftEnd);
 
                 ShiftReport savedReport = shiftReportRepository.save(shiftReport);
+                activeShiftTotals.evict(currentUser.getId());
                 System.out.println("Shift Saved: " + savedReport.getId() + " - Saved End Time: "
                                 + savedReport.getShiftEnd());
 
@@ -118,7 +128,7 @@ public class ShiftReportServiceImpl implements ShiftReportService {
         @Override
         public ShiftReportDTO getShiftReportById(Long id) throws Exception {
 
-                return shiftReportRepository.findById(id)
+                return shiftReportRepository.findDetailById(id)
                                 .map(ShiftReportMapper::toDTO)
                                 .orElseThrow(
                                                 () -> new Exception("No shift found for this cashier." + id));
@@ -126,74 +136,59 @@ public class ShiftReportServiceImpl implements ShiftReportService {
         }
 
         @Override
-        public List<ShiftReportDTO> getAllShiftReports() {
-                List<ShiftReport> reports = shiftReportRepository.findAll();
+        @Transactional(readOnly = true)
+        public CursorPage<ShiftReportSummaryDTO> getShiftReports(Long storeId, Long cashierId, String cursor,
+                        int size) {
+
+                int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+                ShiftCursor after = cursor != null && !cursor.isBlank() ? ShiftCursor.decode(cursor) : null;
+
+                // One extra row tells us whether another page exists
+                List<ShiftReportRepository.ShiftSummary> rows = shiftReportRepository.findSummaryPage(storeId,
+                                cashierId, after != null ? after.shiftStart() : null, after != null ? after.id() : null,
+                                PageRequest.of(0, pageSize + 1));
+                boolean hasMore = rows.size() > pageSize;
+                List<ShiftReportRepository.ShiftSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+                String nextCursor = null;
+                if (hasMore) {
+                        ShiftReportRepository.ShiftSummary last = page.get(page.size() - 1);
+                        nextCursor = new ShiftCursor(last.getShiftStart(), last.getId()).encode();
+                }
 
-                return reports.stream()
-                                .map(ShiftReportMapper::toDTO)
-                                .collect(Collectors.toList());
+                return CursorPage.<ShiftReportSummaryDTO>builder()
+                                .items(page.stream().map(ShiftReportMapper::toSummaryDTO).collect(Collectors.toList()))
+                                .nextCursor(nextCursor)
+                                .hasMore(hasMore)
+                                .build();
         }
 
-        @Override
-        public List<ShiftReportDTO> getShiftReportsByStoreId(Long storeId) {
-                List<ShiftReport> reports = shiftReportRepository.findByStoreId(storeId);
-                return reports.stream()
-                                .map(ShiftReportMapper::toDTO)
-                                .collect(Collectors.toList());
-        }
+        /** Position after the last shift of a page; sent to clients as opaque base64url text. */
+        private record ShiftCursor(LocalDateTime shiftStart, Long id) {
 
-        @Override
-        public List<ShiftReportDTO> getShiftReportsByCashierId(Long cashierId) {
-                List<ShiftReport> reports = shiftReportRepository.findByCashierId(cashierId);
+                String encode() {
+                        return Base64.getUrlEncoder().withoutPadding()
+                                        .encodeToString((shiftStart + "|" + id).getBytes(StandardCharsets.UTF_8));
+                }
 
-                return reports.stream()
-                                .map(ShiftReportMapper::toDTO)
-                                .collect(Collectors.toList());
+                static ShiftCursor decode(String cursor) {
+                        try {
+                                String[] parts = new String(Base64.getUrlDecoder().decode(cursor),
+                                                StandardCharsets.UTF_8).split("\\|");
+                                return new ShiftCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+                        } catch (RuntimeException e) {
+                                throw new IllegalArgumentException("Invalid cursor");
+                        }
+                }
         }
 
         @Override
+        @Transactional(readOnly = true)
         public ShiftReportDTO getCurrentShiftProgress(Long cashierId) throws Exception {
 
-                User user = userService.getCurrentUser();
-
-                ShiftReport shiftReport = shiftReportRepository
-                                .findTopByCashierAndShiftEndIsNullOrderByShiftStartDesc(user)
-                                .orElse(null);
-
-                if (shiftReport == null) {
-                        return null;
-                }
-
-                LocalDateTime now = LocalDateTime.now();
-                List<Order> orders = orderRepository.findByCashierAndCreatedAtBetween(user, shiftReport.getShiftStart(),
-                                now);
-
-                List<Refund> refunds = refundRepository.findByCashierIdAndCreatedAtBetween(
-                                user.getId(), shiftReport.getShiftStart(), now);
-
-                double totalRefunds = refunds.stream()
-                                .mapToDouble(refund -> refund.getAmount() != null ? refund.getAmount() : 0.0).sum();
-
-                double totalSales = orders.stream()
-                                .mapToDouble(Order::getTotalAmount).sum();
-
-                int totalOrders = orders.size();
-
-                double netSales = totalSales - totalRefunds;
-
-                shiftReport.setTotalRefunds(totalRefunds);
-                shiftReport.setTotalSales(totalSales);
-                shiftReport.setTotalOrders(totalOrders);
-                shiftReport.setNetSales(netSales);
-                shiftReport.setRecentOrders(getRecentOrders(orders));
-                shiftReport.setTopSellingProducts(getTopSellingProducts(orders));
-                shiftReport.setPaymentSummaries(getPaymentSummaries(orders, totalSales));
-                shiftReport.setRefunds(refunds);
-
-                ShiftReport savedReport = shiftReportRepository.save(shiftReport);
-
-                return ShiftReportMapper.toDTO(savedReport);
-
+                // Kept up to date by checkouts and refunds; only the first read of a shift queries
+                Long userId = userService.getCurrentPrincipal().userId();
+                return activeShiftTotals.progress(userId).orElse(null);
         }
 
         @Override
@@ -213,59 +208,56 @@ public class ShiftReportServiceImpl implements ShiftReportService {
 
         }
 
-        private List<PaymentSummary> getPaymentSummaries(List<Order> orders, double totalSales) {
-
-                Map<PaymentType, List<Order>> grouped = orders.stream()
-                                .collect(Collectors.groupingBy(
-                                                order -> order.getPaymentType() != null ? order.getPaymentType()
-                                                                : PaymentType.CASH));
-
-                List<PaymentSummary> summaries = new ArrayList<>();
-
-                for (Map.Entry<PaymentType, List<Order>> entry : grouped.entrySet()) {
-                        double amount = entry.getValue().stream()
-                                        .mapToDouble(Order::getTotalAmount)
-                                        .sum();
-
-                        int transactions = entry.getValue().size();
+        private List<PaymentSummary> getPaymentSummaries(List<OrderRepository.PaymentTotals> paymentTotals,
+                        double totalSales) {
 
-                        double percent = (amount / totalSales) * 100;
+                // Orders without a payment type count as cash
+                Map<PaymentType, PaymentSummary> byType = new EnumMap<>(PaymentType.class);
 
-                        PaymentSummary ps = new PaymentSummary();
-                        ps.setType(entry.getKey());
-                        ps.setTotalAmount(amount);
-                        ps.setTransactionCount(transactions);
-                        ps.setPercentage(percent);
+                for (OrderRepository.PaymentTotals totals : paymentTotals) {
+                        PaymentType type = totals.getPaymentType() != null ? totals.getPaymentType()
+                                        : PaymentType.CASH;
 
-                        summaries.add(ps);
+                        PaymentSummary ps = byType.computeIfAbsent(type, t -> {
+                                PaymentSummary summary = new PaymentSummary();
+                                summary.setType(t);
+                                summary.setTotalAmount(0.0);
+                                return summary;
+                        });
+                        ps.setTotalAmount(ps.getTotalAmount() + totals.getAmount());
+                        ps.setTransactionCount(ps.getTransactionCount() + totals.getOrders().intValue());
                 }
-                return summaries;
-        }
-
-        private List<Product> getTopSellingProducts(List<Order> orders) {
-
-                Map<Product, Integer> productSalesMap = new HashMap<>();
 
-                for (Order order : orders) {
-                        for (OrderItem item : order.getItems()) {
-                                Product product = item.getProduct();
-                                productSalesMap.put(product,
-                                                productSalesMap.getOrDefault(product, 0) + item.getQuantity());
-                        }
+                for (PaymentSummary ps : byType.values()) {
+                        ps.setPercentage(totalSales > 0 ? (ps.getTotalAmount() / totalSales) * 100 : 0.0);
                 }
+                return new ArrayList<>(byType.values());
+        }
 
-                return productSalesMap.entrySet().stream()
-                                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                                .limit(5)
-                                .map(Map.Entry::getKey)
+        private List<ShiftProductSale> getTopSellingProducts(Long cashierId, LocalDateTime from, LocalDateTime to) {
+
+                return orderItemRepository.findTopProductsForCashier(cashierId, from, to, PageRequest.of(0, 5))
+                                .stream()
+                                .map(sales -> ShiftProductSale.builder()
+                                                .productId(sales.getProductId())
+                                                .productName(sales.getProductName())
+                                                .sku(sales.getSku())
+                                                .unitsSold(sales.getUnitsSold())
+                                                .revenue(sales.getRevenue())
+                                                .build())
                                 .collect(Collectors.toList());
         }
 
-        private List<Order> getRecentOrders(List<Order> orders) {
+        private List<ShiftOrderSummary> getRecentOrders(Long cashierId, LocalDateTime from, LocalDateTime to) {
 
-                return orders.stream()
-                                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                                .limit(5)
+                return orderRepository.findTop5ByCashierIdAndCreatedAtBetweenOrderByCreatedAtDesc(cashierId, from, to)
+                                .stream()
+                                .map(order -> ShiftOrderSummary.builder()
+                                                .orderId(order.getId())
+                                                .totalAmount(order.getTotalAmount())
+                                                .paymentType(order.getPaymentType())
+                                                .createdAt(order.getCreatedAt())
+                                                .build())
                                 .collect(Collectors.toList());
         }
 }
@@ -67,8 +67,8 @@ public class StoreServiceImpl implements StoreService {
 
     @Override
     public Store getStoreByAdmin() throws UserException {
-        User admin = userService.getCurrentUser();
-        Store store = storeRepository.findByStoreAdminId(admin.getId());
+        Long adminId = userService.getCurrentPrincipal().userId();
+        Store store = storeRepository.findByStoreAdminId(adminId);
         if (store == null) {
             throw new UserException("No store found for current owner. Please create a store first.");
         }
@@ -78,9 +78,9 @@ public class StoreServiceImpl implements StoreService {
     @Override
     public StoreDto updateStore(Long id, StoreDto storeDto) throws Exception {
 
-        User currentUser = userService.getCurrentUser();
+        Long adminId = userService.getCurrentPrincipal().userId();
 
-        Store existing = storeRepository.findByStoreAdminId(currentUser.getId());
+        Store existing = storeRepository.findByStoreAdminId(adminId);
 
         if (existing == null) {
             throw new Exception("Store not found...");
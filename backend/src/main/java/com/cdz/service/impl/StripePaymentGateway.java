@@ -0,0 +1,60 @@
+package com.cdz.service.impl;
+
+import com.cdz.service.PaymentGateway;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.Webhook;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@Profile("!stub-payments")
+@Slf4j
+public class StripePaymentGateway implements PaymentGateway {
+
+    @Value("${stripe.api.key:}")
+    private String stripeApiKey;
+
+    @Value("${stripe.webhook.secret:}")
+    private String webhookSecret;
+
+    @Override
+    public String fetchPaymentIntentStatus(String paymentIntentId) throws Exception {
+        if (stripeApiKey == null || stripeApiKey.isBlank()) {
+            throw new IllegalStateException(
+                    "Stripe API key is not configured. Set STRIPE_API_KEY environment variable.");
+        }
+        return PaymentIntent.retrieve(paymentIntentId).getStatus();
+    }
+
+    @Override
+    public Optional<PaymentIntentStatus> parseWebhookEvent(String payload, String signatureHeader) {
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            throw new IllegalStateException(
+                    "Stripe webhook secret is not configured. Set STRIPE_WEBHOOK_SECRET environment variable.");
+        }
+        if (signatureHeader == null || signatureHeader.isBlank()) {
+            throw new IllegalArgumentException("Missing Stripe-Signature header");
+        }
+
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, signatureHeader, webhookSecret);
+        } catch (SignatureVerificationException e) {
+            throw new IllegalArgumentException("Invalid Stripe webhook signature");
+        }
+
+        if (event.getType() == null || !event.getType().startsWith("payment_intent.")) {
+            return Optional.empty();
+        }
+        return event.getDataObjectDeserializer().getObject()
+                .filter(PaymentIntent.class::isInstance)
+                .map(PaymentIntent.class::cast)
+                .map(intent -> new PaymentIntentStatus(intent.getId(), intent.getStatus()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.cdz.service.impl;
+
+import com.cdz.service.PaymentGateway;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for Stripe, enabled with the {@code stub-payments} profile.
+ * Every PaymentIntent reports {@code payments.stub.default-status} unless a test
+ * sets a status explicitly. Webhooks are unsigned JSON: {"id": "...", "status": "..."}.
+ */
+@Service
+@Profile("stub-payments")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${payments.stub.default-status:succeeded}")
+    private String defaultStatus;
+
+    public void setStatus(String paymentIntentId, String status) {
+        statuses.put(paymentIntentId, status);
+    }
+
+    @Override
+    public String fetchPaymentIntentStatus(String paymentIntentId) {
+        return statuses.getOrDefault(paymentIntentId, defaultStatus);
+    }
+
+    @Override
+    public Optional<PaymentIntentStatus> parseWebhookEvent(String payload, String signatureHeader) {
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            if (!node.hasNonNull("id") || !node.hasNonNull("status")) {
+                return Optional.empty();
+            }
+            PaymentIntentStatus update = new PaymentIntentStatus(node.get("id").asText(), node.get("status").asText());
+            statuses.put(update.paymentIntentId(), update.status());
+            return Optional.of(update);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid webhook payload");
+        }
+    }
+}
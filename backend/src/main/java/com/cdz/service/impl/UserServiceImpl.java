@@ -1,13 +1,18 @@
 package com.cdz.service.impl;
 
+import com.cdz.cache.PrincipalCache;
+import com.cdz.cache.TokenVersionCache;
 import com.cdz.configuration.JwtProvider;
+import com.cdz.configuration.TokenPrincipal;
 import com.cdz.exceptions.UserException;
 import com.cdz.model.User;
 import com.cdz.repository.UserRepository;
 import com.cdz.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,27 +22,45 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final JwtProvider jwtProvider;
+    private final PrincipalCache principalCache;
+    private final TokenVersionCache tokenVersionCache;
 
     @Override
     public User getUserFromJwtToken(String token) throws UserException {
 
         String email = jwtProvider.getEmailFromToken(token);
-        User user = userRepository.findByEmail(email);
-        if (user == null) {
+        TokenPrincipal principal = principalCache.findByEmail(email);
+        if (principal == null) {
             throw new UserException("Invalid Token");
         }
-        return user;
+        return userRepository.findById(principal.userId()).orElseThrow(
+                () -> new UserException("Invalid Token"));
     }
 
     @Override
     public User getCurrentUser() throws UserException {
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email);
-        if (user == null) {
+        return userRepository.findById(getCurrentPrincipal().userId()).orElseThrow(
+                () -> new UserException("User Not Found"));
+    }
+
+    @Override
+    public TokenPrincipal getCurrentPrincipal() throws UserException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TokenPrincipal principal
+                && principal.userId() != null) {
+            return principal;
+        }
+        TokenPrincipal current = principalCache.findByEmail(authentication != null ? authentication.getName() : null);
+        if (current == null) {
             throw new UserException("User Not Found");
         }
-        return user;
+        return current;
+    }
+
+    @Override
+    public Long getCurrentStoreId() throws UserException {
+        return getCurrentPrincipal().storeId();
     }
 
     @Override
@@ -67,6 +90,8 @@ public class UserServiceImpl implements UserService {
     @Override
     public User updateUserProfile(User user, String fullName, String phone, String password,
             org.springframework.web.multipart.MultipartFile imageFile) throws java.io.IOException {
+        user = userRepository.findById(user.getId()).orElseThrow(
+                () -> new java.io.IOException("User not found"));
         if (fullName != null && !fullName.isEmpty()) {
             user.setFullName(fullName);
         }
@@ -107,12 +132,20 @@ public class UserServiceImpl implements UserService {
             }
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void updateUserStore(User user, com.cdz.model.Store store) {
-        user.setStore(store);
-        userRepository.save(user);
+        User managed = userRepository.findById(user.getId()).orElseThrow(
+                () -> new IllegalStateException("User not found: " + user.getId()));
+        managed.setStore(store);
+        userRepository.save(managed);
+        // Evicts again after commit, so a token check during this transaction cannot re-cache the old version
+        tokenVersionCache.bump(managed);
+        principalCache.invalidate(managed.getEmail());
     }
 }
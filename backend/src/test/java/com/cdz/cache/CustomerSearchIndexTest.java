@@ -0,0 +1,125 @@
+package com.cdz.cache;
+
+import com.cdz.event.CustomerChangedEvent;
+import com.cdz.model.Customer;
+import com.cdz.model.Store;
+import com.cdz.payload.dto.CustomerDTO;
+import com.cdz.payload.response.CursorPage;
+import com.cdz.repository.CustomerRepository;
+import com.cdz.service.impl.CustomerServiceImpl;
+import com.cdz.service.impl.PhoneNumberNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerSearchIndexTest {
+
+    private static final Long STORE_ID = 1L;
+
+    private final PhoneNumberNormalizer normalizer = new PhoneNumberNormalizer("44");
+    private CustomerRepository customerRepository;
+    private CustomerSearchIndex index;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        index = new CustomerSearchIndex(customerRepository, normalizer, 1000);
+        store = new Store();
+        store.setId(STORE_ID);
+    }
+
+    @Test
+    void ranksNamePrefixBeforeEmailPrefixBeforeWordPrefix() {
+        load(customer(1L, "Sam Taylor", "taylor@example.org", null),
+                customer(2L, "Taylor Swift", "ts@example.org", null),
+                customer(3L, "Ann Lee", "taylored@example.org", null),
+                customer(4L, "Bo Tayloring", "bo@example.org", null));
+
+        assertThat(ids(index.search(STORE_ID, "Taylor"))).containsExactly(2L, 3L, 1L, 4L);
+    }
+
+    @Test
+    void phoneLikeQueriesMatchNumberPrefixesWithTheExactNumberFirst() {
+        load(customer(1L, "Ann", null, "07700 900123"),
+                customer(2L, "Bob", null, "07700 900124"),
+                customer(3L, "Cat", null, "+1 415 555 2671"));
+
+        assertThat(ids(index.search(STORE_ID, "07700 900124"))).containsExactly(2L);
+        assertThat(ids(index.search(STORE_ID, "07700"))).containsExactly(1L, 2L);
+        assertThat(ids(index.search(STORE_ID, "+1 415"))).containsExactly(3L);
+    }
+
+    @Test
+    void changedCustomersAreSearchableByTheirNewDetails() {
+        load(customer(1L, "Old Name", null, "07700 900123"));
+
+        Customer renamed = customer(1L, "New Name", null, "07700 900999");
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        index.onCustomerChanged(new CustomerChangedEvent(STORE_ID, 1L));
+
+        assertThat(index.search(STORE_ID, "old")).isEmpty();
+        assertThat(index.search(STORE_ID, "07700 900123")).isEmpty();
+        assertThat(ids(index.search(STORE_ID, "new"))).containsExactly(1L);
+        assertThat(ids(index.search(STORE_ID, "07700 900999"))).containsExactly(1L);
+    }
+
+    @Test
+    void cursorPagesThroughEveryMatchOnce() {
+        List<Customer> customers = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            customers.add(customer(id, "Customer " + id, null, null));
+        }
+        load(customers.toArray(Customer[]::new));
+        CustomerServiceImpl service = new CustomerServiceImpl(customerRepository, mock(CustomerPhoneCache.class),
+                normalizer, index, mock(ApplicationEventPublisher.class));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<CustomerDTO> page = service.searchCustomers(STORE_ID, "customer", cursor, 3);
+            seen.addAll(ids(page.getItems()));
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(service.searchCustomers(STORE_ID, "customer", "99", 3).getItems()).isEmpty();
+        assertThatThrownBy(() -> service.searchCustomers(STORE_ID, "customer", "-1", 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchCustomers(STORE_ID, "customer", "abc", 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void load(Customer... customers) {
+        when(customerRepository.findByStoreId(STORE_ID)).thenReturn(List.of(customers));
+        index.search(STORE_ID, "");
+    }
+
+    private Customer customer(Long id, String name, String email, String phone) {
+        return Customer.builder()
+                .id(id)
+                .fullName(name)
+                .email(email)
+                .phone(phone)
+                .phoneNormalized(normalizer.normalize(phone))
+                .store(store)
+                .build();
+    }
+
+    private static List<Long> ids(List<CustomerDTO> customers) {
+        return customers.stream().map(CustomerDTO::getId).toList();
+    }
+}
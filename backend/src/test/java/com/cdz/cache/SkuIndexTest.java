@@ -0,0 +1,172 @@
+package com.cdz.cache;
+
+import com.cdz.event.InventoryChangedEvent;
+import com.cdz.event.ProductChangedEvent;
+import com.cdz.model.Category;
+import com.cdz.model.Product;
+import com.cdz.model.Store;
+import com.cdz.payload.response.SkuLookupResponse;
+import com.cdz.repository.InventoryRepository;
+import com.cdz.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SkuIndexTest {
+
+    private static final Long STORE_ID = 1L;
+
+    // "AO" and "B0" have the same String.hashCode, so these four all land on one probe chain
+    private static final List<String> COLLIDING = List.of("AOAO", "AOB0", "B0AO", "B0B0");
+
+    private ProductRepository productRepository;
+    private InventoryRepository inventoryRepository;
+    private SkuIndex skuIndex;
+    private Store store;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        inventoryRepository = mock(InventoryRepository.class);
+        skuIndex = new SkuIndex(productRepository, inventoryRepository, 500);
+
+        store = new Store();
+        store.setId(STORE_ID);
+        category = Category.builder().name("Grocery").store(store).build();
+    }
+
+    @Test
+    void findsEveryProductOnACollidingProbeChain() {
+        assertThat(COLLIDING.stream().map(String::hashCode).distinct()).hasSize(1);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            products.add(product(i + 1L, COLLIDING.get(i)));
+        }
+        load(products, List.of(stock(2L, 5)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(productId(COLLIDING.get(i))).contains(i + 1L);
+        }
+        assertThat(skuIndex.lookup(STORE_ID, " aob0 ")).map(SkuLookupResponse::getQuantity).contains(5);
+        assertThat(skuIndex.lookup(STORE_ID, "AOAO")).map(SkuLookupResponse::getQuantity).isEmpty();
+        // Same hash, not in the table: the probe must stop at the end of the chain
+        assertThat(skuIndex.lookup(STORE_ID, COLLIDING.get(3))).isEmpty();
+        assertThat(skuIndex.lookup(STORE_ID, " ")).isEmpty();
+    }
+
+    @Test
+    void removedProductFreesItsSkuWithoutBreakingTheChain() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < COLLIDING.size(); i++) {
+            products.add(product(i + 1L, COLLIDING.get(i)));
+        }
+        load(products, List.of());
+
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        skuIndex.onProductChanged(new ProductChangedEvent(STORE_ID, 1L, 0));
+
+        assertThat(skuIndex.lookup(STORE_ID, "AOAO")).isEmpty();
+        assertThat(productId("AOB0")).contains(2L);
+        assertThat(productId("B0AO")).contains(3L);
+        assertThat(productId("B0B0")).contains(4L);
+
+        // The SKU can be reused by another product
+        when(productRepository.findById(9L)).thenReturn(Optional.of(product(9L, "AOAO")));
+        when(inventoryRepository.findStockLevels(eq(STORE_ID), anyCollection())).thenReturn(List.of(stock(9L, 3)));
+        skuIndex.onProductChanged(new ProductChangedEvent(STORE_ID, 9L, 0));
+
+        assertThat(productId("AOAO")).contains(9L);
+        assertThat(skuIndex.lookup(STORE_ID, "AOAO")).map(SkuLookupResponse::getQuantity).contains(3);
+    }
+
+    @Test
+    void changingASkuDropsTheOldOne() {
+        load(List.of(product(1L, "OLD-1")), List.of());
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, "NEW-1")));
+        when(inventoryRepository.findStockLevels(eq(STORE_ID), anyCollection())).thenReturn(List.of());
+        skuIndex.onProductChanged(new ProductChangedEvent(STORE_ID, 1L, 0));
+
+        assertThat(skuIndex.lookup(STORE_ID, "OLD-1")).isEmpty();
+        assertThat(productId("new-1")).contains(1L);
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        load(List.of(product(1L, "SKU-1")), List.of());
+        when(inventoryRepository.findStockLevels(eq(STORE_ID), anyCollection())).thenReturn(List.of());
+
+        for (long id = 2; id <= 100; id++) {
+            when(productRepository.findById(id)).thenReturn(Optional.of(product(id, "SKU-" + id)));
+            skuIndex.onProductChanged(new ProductChangedEvent(STORE_ID, id, 0));
+        }
+
+        for (long id = 1; id <= 100; id++) {
+            assertThat(productId("SKU-" + id)).contains(id);
+        }
+        assertThat(skuIndex.lookup(STORE_ID, "SKU-101")).isEmpty();
+    }
+
+    @Test
+    void stockChangesAreVisibleToTheNextLookup() {
+        load(List.of(product(1L, "MILK-1L"), product(2L, "BREAD")), List.of(stock(1L, 10)));
+
+        when(inventoryRepository.findStockLevels(eq(STORE_ID), anyCollection())).thenReturn(List.of(stock(1L, 7)));
+        skuIndex.onInventoryChanged(new InventoryChangedEvent(STORE_ID, List.of(1L, 2L)));
+
+        assertThat(skuIndex.lookup(STORE_ID, "MILK-1L")).map(SkuLookupResponse::getQuantity).contains(7);
+        // No inventory row any more
+        assertThat(skuIndex.lookup(STORE_ID, "BREAD")).map(SkuLookupResponse::getQuantity).isEmpty();
+        assertThat(productId("BREAD")).contains(2L);
+    }
+
+    private void load(List<Product> products, List<InventoryRepository.StockLevel> stock) {
+        when(productRepository.findByStoreId(STORE_ID)).thenReturn(products);
+        when(inventoryRepository.findStockLevelsByStoreId(STORE_ID)).thenReturn(stock);
+        skuIndex.lookup(STORE_ID, "warm-up");
+    }
+
+    private Optional<Long> productId(String sku) {
+        return skuIndex.lookup(STORE_ID, sku).map(found -> found.getProduct().getId());
+    }
+
+    private Product product(Long id, String sku) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .sku(sku)
+                .sellingPrice(1.0)
+                .category(category)
+                .store(store)
+                .build();
+    }
+
+    private static InventoryRepository.StockLevel stock(Long productId, Integer quantity) {
+        return new InventoryRepository.StockLevel() {
+            @Override
+            public Long getStoreId() {
+                return STORE_ID;
+            }
+
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
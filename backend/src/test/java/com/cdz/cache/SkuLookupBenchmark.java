@@ -0,0 +1,152 @@
+package com.cdz.cache;
+
+import com.cdz.mapper.ProductMapper;
+import com.cdz.model.Category;
+import com.cdz.model.Product;
+import com.cdz.model.Store;
+import com.cdz.payload.response.SkuLookupResponse;
+import com.cdz.repository.InventoryRepository;
+import com.cdz.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Barcode scan lookups: {@link SkuIndex} against a {@link ConcurrentHashMap} keyed by
+ * normalized SKU, and against the indexed (store_id, sku) query the repository ran
+ * before, here on in-memory H2, which is a lower bound for a real database round trip.
+ * <p>
+ * Run {@link #main} from the IDE or with {@code java -cp} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SkuLookupBenchmark {
+
+    private static final long STORE_ID = 1L;
+
+    @Param({ "1000", "50000" })
+    private int products;
+
+    private SkuIndex skuIndex;
+    private ConcurrentHashMap<String, SkuLookupResponse> hashMap;
+    private Connection connection;
+    private PreparedStatement query;
+    private String[] scans;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Store store = new Store();
+        store.setId(STORE_ID);
+        Category category = Category.builder().name("Grocery").store(store).build();
+
+        List<Product> catalog = new ArrayList<>();
+        hashMap = new ConcurrentHashMap<>();
+        for (long id = 1; id <= products; id++) {
+            Product product = Product.builder()
+                    .id(id)
+                    .name("Product " + id)
+                    .sku(String.format("%013d", 4_000_000_000_000L + id * 7919))
+                    .sellingPrice(10.0)
+                    .category(category)
+                    .store(store)
+                    .build();
+            catalog.add(product);
+        }
+
+        ProductRepository productRepository = mock(ProductRepository.class);
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        when(productRepository.findByStoreId(anyLong())).thenReturn(catalog);
+        when(inventoryRepository.findStockLevelsByStoreId(anyLong())).thenReturn(List.of());
+        skuIndex = new SkuIndex(productRepository, inventoryRepository, 500);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:skulookup;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS product");
+            ddl.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, store_id BIGINT, sku VARCHAR(64), "
+                    + "name VARCHAR(255), selling_price DOUBLE)");
+            ddl.execute("CREATE INDEX idx_product_store_sku ON product (store_id, sku)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO product (id, store_id, sku, name, selling_price) VALUES (?, ?, ?, ?, ?)")) {
+            for (Product product : catalog) {
+                insert.setLong(1, product.getId());
+                insert.setLong(2, STORE_ID);
+                insert.setString(3, product.getSku());
+                insert.setString(4, product.getName());
+                insert.setDouble(5, product.getSellingPrice());
+                insert.addBatch();
+                hashMap.put(product.getSku().toUpperCase(Locale.ROOT),
+                        new SkuLookupResponse(ProductMapper.toDTO(product), null));
+            }
+            insert.executeBatch();
+        }
+        query = connection.prepareStatement(
+                "SELECT id, sku, name, selling_price FROM product WHERE store_id = ? AND sku = ?");
+
+        // Scans as typed by the scanner: mostly hits, some unknown codes
+        Random random = new Random(42);
+        scans = new String[1024];
+        for (int i = 0; i < scans.length; i++) {
+            scans[i] = i % 10 == 0
+                    ? String.format("%013d", 9_000_000_000_000L + random.nextInt(1_000_000))
+                    : catalog.get(random.nextInt(catalog.size())).getSku();
+        }
+        skuIndex.lookup(STORE_ID, scans[0]);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public Optional<SkuLookupResponse> skuIndex(Cursor cursor) {
+        return skuIndex.lookup(STORE_ID, scans[cursor.next++ & (scans.length - 1)]);
+    }
+
+    @Benchmark
+    public SkuLookupResponse hashMap(Cursor cursor) {
+        return hashMap.get(scans[cursor.next++ & (scans.length - 1)].trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public Long indexedQuery(Cursor cursor) throws SQLException {
+        query.setLong(1, STORE_ID);
+        query.setString(2, scans[cursor.next++ & (scans.length - 1)]);
+        try (ResultSet rs = query.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SkuLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.cdz.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private record Doc(Long id, String name, String email) {
+    }
+
+    /** Name prefix first, then email prefix, then anything else. */
+    private static final TrigramIndex.Ranker RANKER = (fields, query) -> {
+        if (fields[0].startsWith(query)) {
+            return 0;
+        }
+        return fields[1].startsWith(query) ? 1 : 2;
+    };
+
+    private static final Comparator<Doc> BY_ID = Comparator.comparing(Doc::id);
+
+    private static TrigramIndex<Doc> index(Doc... docs) {
+        TrigramIndex<Doc> index = new TrigramIndex<>(docs.length, Doc::id, List.of(Doc::name, Doc::email));
+        for (Doc doc : docs) {
+            index.add(doc);
+        }
+        return index;
+    }
+
+    private static List<Long> ids(List<Doc> docs) {
+        return docs.stream().map(Doc::id).toList();
+    }
+
+    @Test
+    void shortQueriesMatchWordPrefixesOnly() {
+        TrigramIndex<Doc> index = index(
+                new Doc(1L, "Coca Cola", "drinks@example.org"),
+                new Doc(2L, "Taco Shell", "tacos@example.org"),
+                new Doc(3L, "Nacho Corn", "nacho@example.org"));
+
+        assertThat(ids(index.search("co", RANKER, BY_ID))).containsExactly(1L, 3L);
+        assertThat(ids(index.search("t", RANKER, BY_ID))).containsExactly(2L);
+        assertThat(ids(index.search("x", RANKER, BY_ID))).isEmpty();
+    }
+
+    @Test
+    void shortQueriesWithPunctuationFallBackToSubstrings() {
+        TrigramIndex<Doc> index = index(
+                new Doc(1L, "Ann Lee", "ann.lee@example.com"),
+                new Doc(2L, "Bob Ray", "bob@example.com"));
+
+        assertThat(ids(index.search(".l", RANKER, BY_ID))).containsExactly(1L);
+        assertThat(ids(index.search("@", RANKER, BY_ID))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void longerQueriesMatchAnySubstringLikeLike() {
+        TrigramIndex<Doc> index = index(
+                new Doc(1L, "Coca Cola", "drinks@example.com"),
+                new Doc(2L, "Taco Shell", "tacos@example.com"),
+                new Doc(3L, "Cacao Nibs", "nibs@example.com"));
+
+        assertThat(ids(index.search("aco", RANKER, BY_ID))).containsExactly(2L);
+        assertThat(ids(index.search("co shel", RANKER, BY_ID))).containsExactly(2L);
+        // Every trigram occurs somewhere, but not as one substring
+        assertThat(ids(index.search("cacola", RANKER, BY_ID))).isEmpty();
+    }
+
+    @Test
+    void ranksNamePrefixThenEmailPrefixThenOtherMatches() {
+        TrigramIndex<Doc> index = index(
+                new Doc(1L, "Mary Smith", "mary@example.com"),
+                new Doc(2L, "Smith & Co", "orders@smith.example"),
+                new Doc(3L, "Jo Blacksmith", "jo@example.com"),
+                new Doc(4L, "Sam Jones", "smithers@example.com"),
+                new Doc(5L, "Smithson", "info@example.com"));
+
+        assertThat(ids(index.search("smith", RANKER, BY_ID))).containsExactly(2L, 5L, 4L, 1L, 3L);
+    }
+
+    @Test
+    void emptyQueryReturnsEveryLiveDocument() {
+        TrigramIndex<Doc> index = index(
+                new Doc(2L, "Bea", "b@example.com"),
+                new Doc(1L, "Al", "a@example.com"));
+        index.upsert(2L, null);
+
+        assertThat(ids(index.search("", RANKER, BY_ID))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void upsertReplacesTheOldText() {
+        TrigramIndex<Doc> index = index(new Doc(1L, "Old Name", "old@example.com"));
+
+        index.upsert(1L, new Doc(1L, "New Name", "new@example.com"));
+
+        assertThat(index.search("old", RANKER, BY_ID)).isEmpty();
+        assertThat(ids(index.search("new", RANKER, BY_ID))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactsAfterManyReplacementsWithoutLosingDocuments() {
+        TrigramIndex<Doc> index = index(
+                new Doc(1L, "Stable Customer", "stable@example.com"),
+                new Doc(2L, "Busy Customer 0", "busy@example.com"));
+
+        // The 1001st replacement leaves more than 1000 tombstones, which triggers compaction
+        for (int i = 1; i <= 1001; i++) {
+            index.upsert(2L, new Doc(2L, "Busy Customer " + i, "busy@example.com"));
+        }
+
+        assertThat(ids(index.search("customer", RANKER, BY_ID))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("customer 1001", RANKER, BY_ID))).containsExactly(2L);
+        assertThat(index.search("customer 1000", RANKER, BY_ID)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+        // Without compaction the trigrams of every replaced name would still be held
+        assertThat(index.gramCount()).isLessThan(100);
+    }
+}
@@ -0,0 +1,77 @@
+package com.cdz.configuration;
+
+import com.cdz.cache.VerifiedTokenCache;
+import com.cdz.domain.UserRole;
+import com.cdz.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one bearer token: building a parser per request (as before),
+ * the shared {@link JwtParser}, and {@link JwtProvider#parseClaims} with the
+ * {@link VerifiedTokenCache} in front of it.
+ * <p>
+ * Run {@link #main} from the IDE or with {@code java -cp} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private SecretKey key;
+    private JwtParser sharedParser;
+    private JwtProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        sharedParser = Jwts.parser().verifyWith(key).build();
+
+        provider = new JwtProvider(new VerifiedTokenCache(1000, Duration.ofMinutes(10)));
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "expirationMs", Duration.ofHours(1).toMillis());
+        provider.init();
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("cashier@benchmark.test");
+        user.setRole(UserRole.ROLE_STAFF);
+        token = provider.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parserPerRequest() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims verifiedTokenCache() {
+        return provider.parseClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
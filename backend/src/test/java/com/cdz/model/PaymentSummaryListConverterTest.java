@@ -0,0 +1,88 @@
+package com.cdz.model;
+
+import com.cdz.domain.PaymentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PaymentSummaryListConverterTest {
+
+    private final PaymentSummaryListConverter converter = new PaymentSummaryListConverter();
+
+    @Test
+    void roundTripsTypesCountsAndAmounts() {
+        String packed = converter.convertToDatabaseColumn(List.of(
+                summary(PaymentType.CASH, 12, 360.0),
+                summary(PaymentType.CARD, 5, 200.25),
+                summary(PaymentType.UPI, 1, 39.75)));
+
+        assertThat(packed).isEqualTo("CASH:12:360.0;CARD:5:200.25;UPI:1:39.75");
+
+        List<PaymentSummary> read = converter.convertToEntityAttribute(packed);
+        assertThat(read).extracting(PaymentSummary::getType)
+                .containsExactly(PaymentType.CASH, PaymentType.CARD, PaymentType.UPI);
+        assertThat(read).extracting(PaymentSummary::getTransactionCount).containsExactly(12, 5, 1);
+        assertThat(read).extracting(PaymentSummary::getTotalAmount).containsExactly(360.0, 200.25, 39.75);
+    }
+
+    @Test
+    void derivesPercentagesFromTheAmounts() {
+        List<PaymentSummary> read = converter.convertToEntityAttribute("CASH:3:75.0;CARD:1:25.0");
+
+        assertThat(read.get(0).getPercentage()).isCloseTo(75.0, within(1e-9));
+        assertThat(read.get(1).getPercentage()).isCloseTo(25.0, within(1e-9));
+        assertThat(converter.convertToEntityAttribute("CASH:0:0.0").get(0).getPercentage()).isZero();
+    }
+
+    @Test
+    void keepsEmptyAndNullApart() {
+        assertThat(converter.convertToDatabaseColumn(List.of())).isEmpty();
+        assertThat(converter.convertToEntityAttribute("")).isEmpty();
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void amountsNeverProduceSeparatorsWhateverTheirSizeOrLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            List<PaymentSummary> summaries = new ArrayList<>();
+            summaries.add(summary(PaymentType.CASH, 2, 12_345_678.9));
+            summaries.add(summary(PaymentType.CARD, 1, 0.0001));
+            summaries.add(summary(PaymentType.UPI, 1, -15.5));
+
+            String packed = converter.convertToDatabaseColumn(summaries);
+
+            assertThat(packed.split(";")).hasSize(3).allSatisfy(entry -> assertThat(entry.split(":")).hasSize(3));
+            assertThat(converter.convertToEntityAttribute(packed)).extracting(PaymentSummary::getTotalAmount)
+                    .containsExactly(12_345_678.9, 0.0001, -15.5);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void skipsEntriesWithoutATypeOrWithAMalformedShape() {
+        List<PaymentSummary> summaries = new ArrayList<>();
+        summaries.add(summary(null, 1, 10.0));
+        summaries.add(summary(PaymentType.CASH, 2, null));
+
+        assertThat(converter.convertToDatabaseColumn(summaries)).isEqualTo("CASH:2:0.0");
+        assertThat(converter.convertToEntityAttribute("CASH:2:20.0;CARD:1;;")).extracting(PaymentSummary::getType)
+                .containsExactly(PaymentType.CASH);
+    }
+
+    private static PaymentSummary summary(PaymentType type, int count, Double amount) {
+        PaymentSummary summary = new PaymentSummary();
+        summary.setType(type);
+        summary.setTransactionCount(count);
+        summary.setTotalAmount(amount);
+        return summary;
+    }
+}
@@ -0,0 +1,256 @@
+package com.cdz.repository;
+
+import com.cdz.domain.PaymentType;
+import com.cdz.domain.UserRole;
+import com.cdz.mapper.OrderMapper;
+import com.cdz.mapper.ShiftReportMapper;
+import com.cdz.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Guards the fetch plans behind the order and shift report endpoints: the number of
+ * statements per endpoint shape must not grow with the number of orders or items.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplan;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderFetchPlanTest {
+
+    private static final int ORDERS = 12;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ShiftReportRepository shiftReportRepository;
+
+    private Store store;
+    private User cashier;
+    private Long firstOrderId;
+
+    @BeforeEach
+    void seed() {
+        store = new Store();
+        store.setBrand("Fetch Plan Mart");
+        em.persist(store);
+
+        cashier = new User();
+        cashier.setFullName("Cashier One");
+        cashier.setEmail("cashier@fetchplan.test");
+        cashier.setPassword("x");
+        cashier.setRole(UserRole.ROLE_STAFF);
+        cashier.setStore(store);
+        em.persist(cashier);
+
+        Category category = Category.builder().name("Snacks").store(store).build();
+        em.persist(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int p = 0; p < ITEMS_PER_ORDER * 2; p++) {
+            Product product = Product.builder()
+                    .name("Product " + p)
+                    .sku("FP-" + p)
+                    .sellingPrice(10.0)
+                    .discountPercentage(0.0)
+                    .category(category)
+                    .store(store)
+                    .build();
+            em.persist(product);
+            products.add(product);
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (int o = 0; o < ORDERS; o++) {
+            Customer customer = Customer.builder().fullName("Customer " + o).phone("07700000" + o).store(store)
+                    .build();
+            em.persist(customer);
+
+            Order order = Order.builder()
+                    .store(store)
+                    .cashier(cashier)
+                    .customer(customer)
+                    .paymentType(PaymentType.CASH)
+                    .totalAmount(30.0)
+                    .build();
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                items.add(OrderItem.builder()
+                        .order(order)
+                        .product(products.get((o + i) % products.size()))
+                        .quantity(1)
+                        .price(10.0)
+                        .originalPrice(10.0)
+                        .discountApplied(0.0)
+                        .build());
+            }
+            order.setItems(items);
+            em.persist(order);
+            orders.add(order);
+        }
+        firstOrderId = orders.get(0).getId();
+
+        ShiftReport shift = ShiftReport.builder()
+                .cashier(cashier)
+                .store(store)
+                .shiftStart(LocalDateTime.now().minusHours(8))
+                .shiftEnd(LocalDateTime.now())
+                .paymentSummaries(List.of(paymentSummary(PaymentType.CASH, 8, 240.0),
+                        paymentSummary(PaymentType.CARD, 4, 120.0)))
+                .recentOrders(orders.subList(0, 5).stream()
+                        .map(order -> ShiftOrderSummary.builder()
+                                .orderId(order.getId())
+                                .totalAmount(order.getTotalAmount())
+                                .paymentType(order.getPaymentType())
+                                .createdAt(order.getCreatedAt())
+                                .build())
+                        .toList())
+                .topSellingProducts(products.subList(0, 3).stream()
+                        .map(product -> ShiftProductSale.builder()
+                                .productId(product.getId())
+                                .productName(product.getName())
+                                .sku(product.getSku())
+                                .unitsSold(1L)
+                                .revenue(10.0)
+                                .build())
+                        .toList())
+                .build();
+        em.persist(shift);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void orderListPageHasConstantStatementCount() {
+        long statements = countStatements(() -> orderRepository
+                .findPageByStore(store.getId(), null, null, null, null, null, null, PageRequest.of(0, 50))
+                .forEach(OrderMapper::toDTO));
+
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void ordersByCashierHasConstantStatementCount() {
+        long statements = countStatements(() -> orderRepository.findByCashierId(cashier.getId())
+                .forEach(OrderMapper::toDTO));
+
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void orderDetailLoadsInFewStatements() {
+        long statements = countStatements(() -> OrderMapper.toDTO(orderRepository.findDetailById(firstOrderId)
+                .orElseThrow()));
+
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void receiptLoadsInFewStatements() {
+        long statements = countStatements(() -> {
+            Order order = orderRepository.findReceiptById(firstOrderId).orElseThrow();
+            order.getItems().forEach(item -> item.getProduct().getName());
+        });
+
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shiftHistoryPageIsOneStatement() {
+        List<ShiftReportRepository.ShiftSummary> page = new ArrayList<>();
+        long statements = countStatements(() -> page.addAll(shiftReportRepository.findSummaryPage(store.getId(),
+                null, null, null, PageRequest.of(0, 26))));
+
+        assertThat(statements).isEqualTo(1);
+        // The payment breakdown is a column of the shift row
+        assertThat(page).singleElement().satisfies(summary -> {
+            assertThat(summary.getCashierName()).isEqualTo("Cashier One");
+            assertThat(summary.getPaymentSummaries())
+                    .extracting(PaymentSummary::getType, PaymentSummary::getTransactionCount,
+                            PaymentSummary::getTotalAmount)
+                    .containsExactly(tuple(PaymentType.CASH, 8, 240.0), tuple(PaymentType.CARD, 4, 120.0));
+        });
+    }
+
+    @Test
+    void shiftReportDetailLoadsInFewStatements() {
+        Long shiftId = shiftReportRepository.findSummaryPage(store.getId(), null, null, null, PageRequest.of(0, 1))
+                .get(0).getId();
+
+        long statements = countStatements(() -> ShiftReportMapper.toDTO(shiftReportRepository.findDetailById(shiftId)
+                .orElseThrow()));
+
+        assertThat(statements).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void shiftCloseOutAggregatesInFewStatements() {
+        LocalDateTime from = LocalDateTime.now().minusHours(8);
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+        List<OrderRepository.PaymentTotals> payments = new ArrayList<>();
+        List<OrderItemRepository.ShiftProductSales> top = new ArrayList<>();
+        List<OrderRepository.OrderSummary> recent = new ArrayList<>();
+
+        long statements = countStatements(() -> {
+            payments.addAll(orderRepository.sumByPaymentTypeForCashier(cashier.getId(), from, to));
+            top.addAll(orderItemRepository.findTopProductsForCashier(cashier.getId(), from, to, PageRequest.of(0, 5)));
+            recent.addAll(orderRepository.findTop5ByCashierIdAndCreatedAtBetweenOrderByCreatedAtDesc(
+                    cashier.getId(), from, to));
+        });
+
+        assertThat(statements).isEqualTo(3);
+        assertThat(payments).singleElement().satisfies(totals -> {
+            assertThat(totals.getOrders()).isEqualTo(ORDERS);
+            assertThat(totals.getAmount()).isEqualTo(ORDERS * 30.0);
+        });
+        assertThat(top).hasSize(5);
+        assertThat(top.get(0).getUnitsSold()).isEqualTo((long) ORDERS * ITEMS_PER_ORDER / (ITEMS_PER_ORDER * 2));
+        assertThat(recent).hasSize(5);
+    }
+
+    private static PaymentSummary paymentSummary(PaymentType type, int transactions, double amount) {
+        PaymentSummary summary = new PaymentSummary();
+        summary.setType(type);
+        summary.setTransactionCount(transactions);
+        summary.setTotalAmount(amount);
+        return summary;
+    }
+
+    private long countStatements(Runnable work) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        statistics.clear();
+        work.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,63 @@
+package com.cdz.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhoneNumberNormalizerTest {
+
+    private final PhoneNumberNormalizer normalizer = new PhoneNumberNormalizer("+44");
+
+    @Test
+    void keepsAnExplicitCountryCode() {
+        assertThat(normalizer.normalize("+44 20 7946 0958")).isEqualTo("+442079460958");
+        assertThat(normalizer.normalize("0044 20 7946 0958")).isEqualTo("+442079460958");
+        assertThat(normalizer.normalize("+1 415 555 2671")).isEqualTo("+14155552671");
+        assertThat(normalizer.normalize("001 415 555 2671")).isEqualTo("+14155552671");
+    }
+
+    @Test
+    void ignoresPunctuationAndSpacing() {
+        assertThat(normalizer.normalize("  +1 (415) 555-2671 ")).isEqualTo("+14155552671");
+        assertThat(normalizer.normalize("020.7946.0958")).isEqualTo("+442079460958");
+        assertThat(normalizer.normalize("(020) 7946/0958")).isEqualTo("+442079460958");
+    }
+
+    @Test
+    void replacesTrunkZerosWithTheDefaultCountryCode() {
+        assertThat(normalizer.normalize("020 7946 0958")).isEqualTo("+442079460958");
+        assertThat(normalizer.normalize("07700 900123")).isEqualTo("+447700900123");
+    }
+
+    @Test
+    void addsTheDefaultCountryCodeOnlyToNationalLengthNumbers() {
+        assertThat(normalizer.normalize("7946 0958")).isEqualTo("+4479460958");
+        assertThat(normalizer.normalize("2079460958")).isEqualTo("+442079460958");
+        // Eleven digits without a prefix already carry a country code
+        assertThat(normalizer.normalize("14155552671")).isEqualTo("+14155552671");
+    }
+
+    @Test
+    void rejectsWhatCannotBeAPhoneNumber() {
+        assertThat(normalizer.normalize(null)).isNull();
+        assertThat(normalizer.normalize("  ")).isNull();
+        assertThat(normalizer.normalize("n/a")).isNull();
+        assertThat(normalizer.normalize("12345")).isNull();
+        assertThat(normalizer.normalize("+1234567890123456")).isNull();
+        // A country code never starts with 0
+        assertThat(normalizer.normalize("000 44 20 7946 0958")).isNull();
+        assertThat(normalizer.normalize("+0 20 7946 0958")).isNull();
+    }
+
+    @Test
+    void prefixesFollowTheSameRules() {
+        assertThat(normalizer.prefixes("+1 41")).containsExactly("+141");
+        assertThat(normalizer.prefixes("0044 20")).containsExactly("+4420");
+        assertThat(normalizer.prefixes("077")).containsExactly("+4477");
+        // Without a prefix the digits may be national or international
+        assertThat(normalizer.prefixes("415")).containsExactly("+415", "+44415");
+        assertThat(normalizer.prefixes("00")).isEmpty();
+        assertThat(normalizer.prefixes(" - ")).isEmpty();
+        assertThat(normalizer.prefixes(null)).isEmpty();
+    }
+}
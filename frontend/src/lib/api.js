@@ -71,6 +71,7 @@ export const productAPI = {
   create: (productData) => api.post('/api/products', productData),
   getByStore: (storeId) => api.get(`/api/products/store/${storeId}`),
   search: (storeId, keyword) => api.get(`/api/products/store/${storeId}/search`, { params: { keyword } }),
+  getBySku: (storeId, sku) => api.get(`/api/products/store/${storeId}/sku/${encodeURIComponent(sku)}`),
   update: (id, productData) => api.patch(`/api/products/${id}`, productData),
   delete: (id) => api.delete(`/api/products/${id}`),
 };
@@ -98,7 +99,8 @@ export const inventoryAPI = {
 
 // Order APIs
 export const orderAPI = {
-  create: (orderData) => api.post('/api/orders', orderData),
+  create: (orderData, idempotencyKey) =>
+    api.post('/api/orders', orderData, idempotencyKey ? { headers: { 'Idempotency-Key': idempotencyKey } } : undefined),
   getById: (id) => api.get(`/api/orders/${id}`),
   getReceipt: (id) => api.get(`/api/orders/${id}/receipt`),
   getByStore: (storeId, filters = {}) => {
@@ -107,6 +109,9 @@ export const orderAPI = {
     if (filters.cashierId) params.cashierId = filters.cashierId;
     if (filters.paymentType) params.paymentType = filters.paymentType;
     if (filters.orderStatus) params.orderStatus = filters.orderStatus;
+    if (filters.cursor) params.cursor = filters.cursor;
+    if (filters.size) params.size = filters.size;
+    // Returns { items, nextCursor, hasMore }
     return api.get(`/api/orders/store/${storeId}`, { params });
   },
   getTodayOrders: (storeId) => api.get(`/api/orders/today/store/${storeId}`),
@@ -122,7 +127,7 @@ export const customerAPI = {
   create: (customerData) => api.post('/api/customers', customerData),
   getAll: () => api.get('/api/customers'),
   getById: (id) => api.get(`/api/customers/${id}`),
-  search: (query) => api.get('/api/customers/search', { params: { q: query } }),
+  search: (query, cursor, size = 20) => api.get('/api/customers/search', { params: { q: query, cursor, size } }),
   update: (id, customerData) => api.put(`/api/customers/${id}`, customerData),
   delete: (id) => api.delete(`/api/customers/${id}`),
 };
@@ -150,8 +155,10 @@ export const shiftReportAPI = {
   startShift: () => api.post('/api/shift-report/start'),
   endShift: () => api.patch('/api/shift-report/end'),
   getCurrentShift: () => api.get('/api/shift-report/current'),
-  getByCashier: (cashierId) => api.get(`/api/shift-report/cashier/${cashierId}`),
-  getByStore: (storeId) => api.get(`/api/shift-report/store/${storeId}`),
+  getByCashier: (cashierId, cursor, size = 25) =>
+    api.get(`/api/shift-report/cashier/${cashierId}`, { params: { cursor, size } }),
+  getByStore: (storeId, cursor, size = 25) =>
+    api.get(`/api/shift-report/store/${storeId}`, { params: { cursor, size } }),
   getByCashierAndDate: (cashierId, date) =>
     api.get(`/api/shift-report/cashier/${cashierId}/by-date`, { params: { date } }),
   getById: (id) => api.get(`/api/shift-report/${id}`),
@@ -163,6 +170,41 @@ export const analyticsAPI = {
   getTopProducts: (storeId, limit = 10, period = null) => api.get(`/api/analytics/top-products/${storeId}`, { params: { limit, period } }),
   getOrderStats: (storeId) => api.get(`/api/analytics/order-stats/${storeId}`),
   getHourlySales: (storeId) => api.get(`/api/analytics/hourly-sales/${storeId}`),
+  // Live dashboard over SSE. EventSource cannot send the bearer token, so read the stream with fetch.
+  // Calls onEvent(name, data) for 'snapshot' and 'delta' events; returns a function that closes the stream.
+  stream: (storeId, onEvent, onError) => {
+    const controller = new AbortController();
+    const token = localStorage.getItem('token');
+    (async () => {
+      const res = await fetch(`${API_BASE_URL}/api/analytics/stream/${storeId}`, {
+        headers: { Accept: 'text/event-stream', ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+        signal: controller.signal,
+      });
+      if (!res.ok || !res.body) throw new Error(`Analytics stream failed: ${res.status}`);
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) throw new Error('Analytics stream closed');
+        buffer += value;
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const frame = buffer.slice(0, boundary);
+          buffer = buffer.slice(boundary + 2);
+          let name = 'message';
+          const data = [];
+          for (const line of frame.split('\n')) {
+            if (line.startsWith('event:')) name = line.slice(6).trim();
+            else if (line.startsWith('data:')) data.push(line.slice(5));
+          }
+          if (data.length) onEvent(name, JSON.parse(data.join('\n')));
+        }
+      }
+    })().catch((err) => {
+      if (!controller.signal.aborted && onError) onError(err);
+    });
+    return () => controller.abort();
+  },
 };
 
 // Report APIs  
@@ -171,6 +213,10 @@ export const reportAPI = {
     api.get(`/api/reports/daily-sales/${storeId}`, { params: { startDate, endDate } }),
   getItemSales: (storeId, startDate, endDate) =>
     api.get(`/api/reports/item-sales/${storeId}`, { params: { startDate, endDate } }),
+  exportDailySales: (storeId, startDate, endDate, format = 'CSV') =>
+    api.get(`/api/reports/daily-sales/${storeId}/export`, { params: { startDate, endDate, format }, responseType: 'blob' }),
+  exportItemSales: (storeId, startDate, endDate, format = 'CSV') =>
+    api.get(`/api/reports/item-sales/${storeId}/export`, { params: { startDate, endDate, format }, responseType: 'blob' }),
 };
 
 export default api;
@@ -149,10 +149,70 @@ export default function Dashboard() {
       }
     };
     fetchAnalytics();
+  }, [storeId]);
 
-    // Auto-refresh every 30 seconds
-    const interval = setInterval(fetchAnalytics, 30000);
-    return () => clearInterval(interval);
+  // Live updates: a snapshot on connect, then coalesced deltas as orders commit
+  useEffect(() => {
+    if (!storeId) return;
+    let close = () => {};
+    let retry;
+    // "Today" is the server's day, as of the last snapshot
+    let snapshotDate = null;
+    const addHourly = (hours, deltas) => hours.map((point) => {
+      const delta = deltas.find((d) => d.hour === point.hour);
+      return delta ? { ...point, sales: Math.round((point.sales + delta.sales) * 100) / 100 } : point;
+    });
+    const connect = () => {
+      close = analyticsAPI.stream(storeId, (event, data) => {
+        if (event === 'snapshot') {
+          snapshotDate = data.date;
+          setSummary(data.summary);
+          setHourlySales(data.hourlySales);
+          setOrderStats(data.orderStats);
+          setTodayProducts(data.todayTopProducts || []);
+        } else if (event === 'delta') {
+          if (data.date !== snapshotDate) {
+            // The server's day rolled over: resync today's figures from a fresh snapshot
+            close();
+            connect();
+            return;
+          }
+          const d = data.summary;
+          setSummary((prev) => {
+            if (!prev) return prev;
+            const totalRevenue = prev.totalRevenue + d.totalRevenue;
+            const totalOrders = prev.totalOrders + d.totalOrders;
+            return {
+              ...prev,
+              todayRevenue: prev.todayRevenue + d.todayRevenue,
+              todayOrders: prev.todayOrders + d.todayOrders,
+              totalRevenue,
+              totalOrders,
+              totalProducts: prev.totalProducts + d.totalProducts,
+              avgOrderValue: totalOrders > 0 ? Math.round((totalRevenue / totalOrders) * 100) / 100 : 0,
+            };
+          });
+          setHourlySales((prev) => addHourly(prev, data.hourlySales));
+          setOrderStats((prev) => {
+            if (!prev) return prev;
+            const byPaymentType = { ...prev.byPaymentType };
+            Object.entries(data.byPaymentType).forEach(([type, count]) => {
+              byPaymentType[type] = (byPaymentType[type] || 0) + count;
+            });
+            return { ...prev, totalOrders: prev.totalOrders + d.totalOrders, byPaymentType };
+          });
+          if (data.todayTopProducts) setTodayProducts(data.todayTopProducts);
+        }
+      }, () => {
+        // Dropped connection: reconnect and resync from a fresh snapshot
+        retry = setTimeout(connect, 5000);
+      });
+    };
+    connect();
+    return () => {
+      clearTimeout(retry);
+      close();
+    };
   }, [storeId]);
 
   if (loading) {
@@ -142,7 +142,7 @@ export default function InventoryPage() {
       };
 
       if (editingInventory) {
-        await inventoryAPI.update(editingInventory.id, inventoryData);
+        await inventoryAPI.update(editingInventory.id, { ...inventoryData, version: editingInventory.version });
         toast({
           title: "Success",
           description: "Inventory updated successfully",
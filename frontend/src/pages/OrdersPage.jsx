@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef, useCallback } from 'react';
 import { useAuth } from '../contexts/AuthContext';
 import { orderAPI, storeAPI } from '../lib/api';
 import { useToast } from '../components/ui/use-toast';
@@ -15,6 +15,9 @@ export default function OrdersPage() {
   const [orders, setOrders] = useState([]);
   const [store, setStore] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const loadMoreRef = useRef(null);
   const [filters, setFilters] = useState({
     paymentType: 'all',
     orderStatus: 'all',
@@ -27,6 +30,13 @@ export default function OrdersPage() {
     loadData();
   }, [filters]);
 
+  const buildFilterParams = () => {
+    const filterParams = {};
+    if (filters.paymentType !== 'all') filterParams.paymentType = filters.paymentType;
+    if (filters.orderStatus !== 'all') filterParams.orderStatus = filters.orderStatus;
+    return filterParams;
+  };
+
   const loadData = async () => {
     try {
       setLoading(true);
@@ -50,12 +60,9 @@ export default function OrdersPage() {
       setStore(storeData);
 
       if (storeData?.id) {
-        const filterParams = {};
-        if (filters.paymentType !== 'all') filterParams.paymentType = filters.paymentType;
-        if (filters.orderStatus !== 'all') filterParams.orderStatus = filters.orderStatus;
-
-        const response = await orderAPI.getByStore(storeData.id, filterParams);
-        setOrders(Array.isArray(response.data) ? response.data : []);
+        const response = await orderAPI.getByStore(storeData.id, buildFilterParams());
+        setOrders(Array.isArray(response.data?.items) ? response.data.items : []);
+        setNextCursor(response.data?.nextCursor || null);
       }
     } catch (error) {
       console.error('Error loading orders:', error);
@@ -69,6 +76,31 @@ export default function OrdersPage() {
     }
   };
 
+  const loadMore = useCallback(async () => {
+    if (!store?.id || !nextCursor || loadingMore) return;
+    try {
+      setLoadingMore(true);
+      const response = await orderAPI.getByStore(store.id, { ...buildFilterParams(), cursor: nextCursor });
+      setOrders((prev) => [...prev, ...(response.data?.items || [])]);
+      setNextCursor(response.data?.nextCursor || null);
+    } catch (error) {
+      console.error('Error loading more orders:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [store, nextCursor, loadingMore, filters]);
+
+  // Infinite scroll: fetch the next page when the sentinel below the list comes into view
+  useEffect(() => {
+    const sentinel = loadMoreRef.current;
+    if (!sentinel || !nextCursor) return;
+    const observer = new IntersectionObserver((entries) => {
+      if (entries[0].isIntersecting) loadMore();
+    }, { rootMargin: '200px' });
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  }, [nextCursor, loadMore]);
+
   const handleViewReceipt = (orderId) => {
     setSelectedOrderId(orderId);
     setShowReceipt(true);
@@ -202,6 +234,15 @@ export default function OrdersPage() {
             </Card>
           ))
         )}
+        {nextCursor && (
+          <div ref={loadMoreRef} className="flex justify-center py-4">
+            {loadingMore ? (
+              <Loader2 className="h-6 w-6 animate-spin text-primary" />
+            ) : (
+              <Button variant="outline" size="sm" onClick={loadMore}>Load more</Button>
+            )}
+          </div>
+        )}
       </div>
 
       <ReceiptModal
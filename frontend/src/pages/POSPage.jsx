@@ -27,6 +27,8 @@ export default function POSPage() {
   const [customers, setCustomers] = useState([]);
   const [paymentDialogOpen, setPaymentDialogOpen] = useState(false);
   const [paymentType, setPaymentType] = useState('CASH');
+  // One key per checkout attempt so a retried submit does not create a second order
+  const [checkoutKey, setCheckoutKey] = useState(null);
   const [loading, setLoading] = useState(true);
 
   // Receipt State
@@ -166,6 +168,7 @@ export default function POSPage() {
       });
       return;
     }
+    setCheckoutKey(crypto.randomUUID());
     setPaymentDialogOpen(true);
   };
 
@@ -189,7 +192,7 @@ export default function POSPage() {
         })),
       };
 
-      const response = await orderAPI.create(orderData);
+      const response = await orderAPI.create(orderData, checkoutKey);
 
       toast({
         title: "Success",
@@ -207,6 +210,7 @@ export default function POSPage() {
       setCustomerPhone('');
       setPaymentDialogOpen(false);
       setPaymentType('CASH');
+      setCheckoutKey(null);
       setIsCustomerSectionOpen(false); // Close customer section
 
       // Reload products to update inventory
@@ -228,7 +232,7 @@ export default function POSPage() {
     }
     try {
       const response = await customerAPI.search(query);
-      setCustomers(response.data || []);
+      setCustomers(response.data?.items || []);
     } catch (error) {
       console.error('Error searching customers:', error);
     }
@@ -44,10 +44,10 @@ export default function ShiftReportsPage() {
 
       if (storeData?.id) {
         const [reportsResponse, currentResponse] = await Promise.all([
-          shiftReportAPI.getByStore(storeData.id).catch(() => ({ data: [] })),
+          shiftReportAPI.getByStore(storeData.id).catch(() => ({ data: null })),
           shiftReportAPI.getCurrentShift().catch(() => ({ data: null })),
         ]);
-        setShiftReports(reportsResponse.data || []);
+        setShiftReports(reportsResponse.data?.items || []);
         setCurrentShift(currentResponse.data);
       }
     } catch (error) {